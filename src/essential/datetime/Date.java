@@ -133,6 +133,18 @@ public boolean equals(Object datum) {
   }
 }
 
+@Override
+public int hashCode() {
+  int result = year;
+  result = result * 31 + month;
+  result = result * 31 + day_of_month;
+  result = result * 31 + hour;
+  result = result * 31 + minute;
+  result = result * 31 + second;
+  result = result * 31 + nanosecond;
+  return result * 31 + offset;
+}
+
 @Override
 public String toString() {
   return String.format("#<date %s %d-%02d-%02d %s %02d:%02d:%02d>",
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.utilities.Continuation;
+import essential.utilities.IdentityMap;
+
+
+/**
+ * Copies a datum in one traversal. Each few, lot cell, primitive array and primitive few is copied
+ * once, and the copy is remembered by identity before its elements are copied, so the copy has
+ * the sharing and the cycles of the datum. The copies are mutable. Immutable objects, persistent
+ * fews included, are shared with the datum. A frozen datum without shared objects is not
+ * remembered.
+ */
+class Copying {
+
+static Object process(Object datum) {
+  Copying inst = new Copying(datum);
+  try {
+    inst.route();
+  }
+  finally {
+    inst.cont.release();
+  }
+  return inst.r0;
+}
+
+private final IdentityMap  copies;     // null for a datum without shared objects
+private final Continuation cont;
+private       Object       datum;
+private       Object       r0;
+
+private Copying(Object datum) {
+  boolean plain = datum instanceof Few fw && fw.isPlain() ||
+                  datum instanceof Lot lt && lt.isPlain();
+  copies = plain ? null : new IdentityMap();
+  cont = Continuation.acquire();
+  this.datum = datum;
+}
+
+private void route() {
+  //noinspection DuplicatedCode
+  int next = Label.OF_DATUM;
+  while (true) {
+    switch (next) {
+      case Label.OF_DATUM -> next = ofDatum();
+      case Label.APPLY_CONT -> next = applyCont();
+      case Label.EXIT -> { return; }
+    }
+  }
+}
+
+private int ofDatum() {
+  if (copies != null) {
+    int index = copies.index(datum);
+    if (index >= 0) {
+      r0 = copies.valueAt(index);
+      return Label.APPLY_CONT;
+    }
+  }
+
+  if (datum instanceof Few fw) {
+    int length = fw.data.length;
+    Few copy   = remember(fw, new Few(new Object[length]));
+    r0 = copy;
+    if (length != 0) {
+      cont.push(Label.ITER_FEW, fw, copy, length, 1, 0);
+      datum = fw.data[0];
+      return Label.OF_DATUM;
+    }
+  }
+  else if (datum instanceof Lot lt) {
+    Lot cell = remember(lt, new Lot());
+    r0 = cell;
+    if (!lt.isEmpty()) {
+      cont.push(Label.RETURN, cell);
+      cont.push(Label.ITER_LOT, lt, cell);
+      datum = lt.data;
+      return Label.OF_DATUM;
+    }
+  }
+  else {
+    r0 = switch (datum) {
+      case boolean[] bs -> remember(bs, bs.clone());
+      case byte[] bs -> remember(bs, bs.clone());
+      case short[] ss -> remember(ss, ss.clone());
+      case int[] ins -> remember(ins, ins.clone());
+      case long[] ls -> remember(ls, ls.clone());
+      case float[] fs -> remember(fs, fs.clone());
+      case double[] ds -> remember(ds, ds.clone());
+      case IntFew fw -> remember(fw, fw.copy());
+      case LongFew fw -> remember(fw, fw.copy());
+      case DoubleFew fw -> remember(fw, fw.copy());
+      case ByteFew fw -> remember(fw, fw.copy());
+      case null, default -> datum;
+    };
+  }
+  return Label.APPLY_CONT;
+}
+
+private int applyCont() {
+  int label = cont.kind();
+  switch (label) {
+    case Label.END_CONT -> { return Label.EXIT; }
+    case Label.ITER_FEW -> {
+      Few fw     = (Few) cont.object(0);
+      Few copy   = (Few) cont.object(1);
+      int length = cont.number(0);
+      int index  = cont.number(1);
+      copy.data[index - 1] = r0;
+      if (index == length) {
+        r0 = copy;
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setNumber(1, index + 1);
+        datum = fw.data[index];
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.ITER_LOT -> {
+      Lot lt    = (Lot) cont.object(0);
+      Lot cell  = (Lot) cont.object(1);
+      Lot next  = lt.next;
+      int index = copies == null ? -1 : copies.index(next);
+      cell.data = r0;
+      if (index >= 0) {
+        cell.next = (Lot) copies.valueAt(index);
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      cell.next = remember(next, new Lot());
+      if (next.isEmpty()) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setObject(0, next);
+        cont.setObject(1, cell.next);
+        datum = next.data;
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.RETURN -> {
+      r0 = cont.object(0);
+      cont.pop();
+      return Label.APPLY_CONT;
+    }
+    default -> throw new RuntimeException("undefined continuation " + label);
+  }
+}
+
+private <T> T remember(Object datum, T copy) {
+  if (copies != null) {
+    copies.insert(datum, copy);
+  }
+  return copy;
+}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Brent's cycle detection, driven by a loop which walks a lot for its own work, so that the lot
+ * is not walked once more just to be checked. The loop reports each cell it moves to, and a cycle
+ * is found within twice the length of the lot's prefix and cycle.
+ */
+class CycleGuard {
+
+private final Lot origin;
+private       Lot tortoise;
+private       int power;
+private       int steps;
+
+/**
+ * @throws RuntimeException if the lot is frozen and known to be circular in breadth.
+ */
+CycleGuard(@NotNull Lot origin) {
+  if (origin.frozenLength() == -1) {
+    String msg = String.format(Msg.CIRCULAR_BREADTH, origin);
+    throw new RuntimeException(msg);
+  }
+  this.origin = origin;
+  tortoise = origin;
+  power = 1;
+  steps = 0;
+}
+
+/**
+ * @param lt the cell the walk has moved to.
+ * @throws RuntimeException if the walk has come back to a cell.
+ */
+void step(@NotNull Lot lt) {
+  if (lt == tortoise) {
+    String msg = String.format(Msg.CIRCULAR_BREADTH, origin);
+    throw new RuntimeException(msg);
+  }
+  steps += 1;
+  if (steps == power) {
+    tortoise = lt;
+    power <<= 1;
+    steps = 0;
+  }
+}
+}
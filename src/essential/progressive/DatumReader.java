@@ -0,0 +1,773 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+
+/**
+ * Reads the data printed by {@link Pr#toString(Object)} back, one after another, from a text or a
+ * stream of characters. The text is read through a fixed buffer, and the lists and fews being
+ * read are kept on a stack of frames, so neither the length of the text nor the depth of the
+ * data is bounded by memory or by the call stack.
+ * <p>
+ * The labels {@code #n=} and {@code #n#} restore the sharing and the cycles of a datum. A list is
+ * labelled by its first cell, which exists before its elements are read. A few is made when it is
+ * closed, so a reference to it from inside is filled in then.
+ * <p>
+ * The text does not keep every type: an integer is read as an {@code Integer}, or a {@code Long}
+ * when too large, a decimal as a {@code Double}, {@code #(...)} as a few, and {@code #i32(...)}
+ * and the other array forms as primitive arrays.
+ */
+public class DatumReader {
+
+private static final int    BUFFER_SIZE = 8192;
+private static final Object PUSHED      = new Object();
+
+/**
+ * Stands for a few whose label is referred to before the few is closed, and records where it
+ * was put.
+ */
+private static class Forward {
+
+  Few      few;
+  Object[] holders = new Object[4];    // the cells of lots, or the arrays of fews
+  int[]    slots   = new int[4];       // the index in an array, -1 for a cell
+  int      count;
+
+  void hold(Object holder, int slot) {
+    if (count == holders.length) {
+      holders = Arrays.copyOf(holders, count * 2);
+      slots = Arrays.copyOf(slots, count * 2);
+    }
+    holders[count] = holder;
+    slots[count] = slot;
+    count += 1;
+  }
+
+  void resolve(Few fw) {
+    few = fw;
+    for (int i = 0; i < count; i += 1) {
+      if (slots[i] < 0) {
+        ((Lot) holders[i]).data = fw;
+      }
+      else {
+        ((Object[]) holders[i])[slots[i]] = fw;
+      }
+    }
+  }
+}
+
+/**
+ * A list or a few being read.
+ */
+private static class Frame {
+
+  boolean  few;
+  Lot      head;
+  Lot      last;
+  Lot      end;
+  boolean  dotted;
+  Object   tail;
+  Object[] items = new Object[8];
+  int      size;
+  Forward  forward;       // the label of the few, if referred to before it is closed
+  boolean  has_forward;   // whether an item is a few not closed yet
+}
+
+private final Reader        in;        // null when reading a text
+private final CharSequence  text;
+private       int           text_index;
+private final char[]        buffer;
+private       int           pos;
+private       int           limit;
+private       long          offset;    // the characters before the buffer
+private       char[]        token;
+private final StringBuilder builder;
+private       long          integer;   // the value of the last integer token
+private       long[]        integers;
+private       double[]      decimals;
+private       Object[]      labels;
+private       int           label_bound;
+private       Frame[]       frames;
+private       int           depth;
+
+public DatumReader(@NotNull CharSequence text) {
+  this(null, text);
+}
+
+public DatumReader(@NotNull Reader in) {
+  this(in, null);
+}
+
+private DatumReader(Reader in, CharSequence text) {
+  this.in = in;
+  this.text = text;
+  text_index = 0;
+  buffer = new char[BUFFER_SIZE];
+  pos = 0;
+  limit = 0;
+  offset = 0;
+  token = new char[32];
+  builder = new StringBuilder();
+  integer = 0;
+  integers = new long[16];
+  decimals = new double[16];
+  labels = new Object[16];
+  label_bound = 0;
+  frames = new Frame[16];
+  depth = 0;
+}
+
+/**
+ * @return true if another datum follows, after skipping white space.
+ */
+public boolean hasNext() {
+  return skipSpace() >= 0;
+}
+
+/**
+ * Reads the next datum.
+ *
+ * @throws RuntimeException if the text ends, or is not printed datum syntax, or wrapping the
+ *                          {@code IOException} of the stream.
+ */
+public @NotNull Object next() {
+  try {
+    return readDatum();
+  }
+  finally {
+    Arrays.fill(labels, 0, label_bound, null);
+    label_bound = 0;
+    for (int i = 0; i < depth; i += 1) {
+      Arrays.fill(frames[i].items, 0, frames[i].size, null);
+    }
+    depth = 0;
+  }
+}
+
+//region Characters
+
+private boolean fill() {
+  int rest = limit - pos;
+  System.arraycopy(buffer, pos, buffer, 0, rest);
+  offset += pos;
+  pos = 0;
+  limit = rest;
+  int n;
+  if (in != null) {
+    try {
+      n = in.read(buffer, rest, buffer.length - rest);
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+  else {
+    n = Math.min(buffer.length - rest, text.length() - text_index);
+    if (text instanceof String str) {
+      str.getChars(text_index, text_index + n, buffer, rest);
+    }
+    else {
+      for (int i = 0; i < n; i += 1) {
+        buffer[rest + i] = text.charAt(text_index + i);
+      }
+    }
+    text_index += n;
+  }
+  if (n <= 0) {
+    return false;
+  }
+  limit += n;
+  return true;
+}
+
+/**
+ * @return the character at the given distance ahead, -1 after the end.
+ */
+private int peek(int ahead) {
+  while (limit - pos <= ahead) {
+    if (!fill()) {
+      return -1;
+    }
+  }
+  return buffer[pos + ahead];
+}
+
+private int peek() {
+  if (pos == limit && !fill()) {
+    return -1;
+  }
+  return buffer[pos];
+}
+
+private int read() {
+  if (pos == limit && !fill()) {
+    return -1;
+  }
+  int c = buffer[pos];
+  pos += 1;
+  return c;
+}
+
+private static boolean isSpace(int c) {
+  return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+}
+
+private static boolean isDelimiter(int c) {
+  return c < 0 || isSpace(c) || c == '(' || c == ')' || c == '"';
+}
+
+private int skipSpace() {
+  while (true) {
+    if (pos == limit && !fill()) {
+      return -1;
+    }
+    char c = buffer[pos];
+    if (!isSpace(c)) {
+      return c;
+    }
+    pos += 1;
+  }
+}
+
+/**
+ * Reads the characters up to a delimiter into {@link #token}.
+ *
+ * @return the number of characters read.
+ */
+private int readToken() {
+  int n = 0;
+  while (true) {
+    if (pos == limit && !fill()) {
+      return n;
+    }
+    char c = buffer[pos];
+    if (isDelimiter(c)) {
+      return n;
+    }
+    if (n == token.length) {
+      token = Arrays.copyOf(token, n * 2);
+    }
+    token[n] = c;
+    n += 1;
+    pos += 1;
+  }
+}
+
+private RuntimeException unexpected(int c) {
+  String msg;
+  if (c < 0) {
+    msg = String.format(Msg.UNEXPECTED_END, offset + pos);
+  }
+  else {
+    msg = String.format(Msg.UNEXPECTED_CHAR, Mate.charToString((char) c), offset + pos - 1);
+  }
+  return new RuntimeException(msg);
+}
+
+private RuntimeException invalid(int length) {
+  String msg = String.format(Msg.INVALID_TOKEN, new String(token, 0, length),
+                             offset + pos - length);
+  return new RuntimeException(msg);
+}
+//endregion
+
+
+//region Data
+
+private Object readDatum() {
+  while (true) {
+    int    c = skipSpace();
+    Object datum;
+    if (c < 0) {
+      throw unexpected(c);
+    }
+    else if (c == ')') {
+      pos += 1;
+      if (depth == 0) {
+        throw unexpected(c);
+      }
+      depth -= 1;
+      datum = close(frames[depth]);
+    }
+    else if (c == '.' && depth > 0 && !frames[depth - 1].few && isDelimiter(peek(1))) {
+      pos += 1;
+      Frame frame = frames[depth - 1];
+      if (frame.last == null || frame.dotted) {
+        throw unexpected(c);
+      }
+      frame.dotted = true;
+      continue;
+    }
+    else {
+      if (depth > 0 && frames[depth - 1].tail != null) {
+        pos += 1;
+        throw unexpected(c);
+      }
+      datum = open();
+      if (datum == PUSHED) {
+        continue;
+      }
+    }
+
+    if (depth == 0) {
+      return datum;
+    }
+    Frame frame = frames[depth - 1];
+    if (frame.few) {
+      if (frame.size == frame.items.length) {
+        frame.items = Arrays.copyOf(frame.items, frame.size * 2);
+      }
+      frame.items[frame.size] = datum;
+      frame.size += 1;
+      frame.has_forward |= datum instanceof Forward;
+    }
+    else if (frame.dotted) {
+      frame.tail = datum;
+    }
+    else {
+      Lot cell = frame.end;
+      cell.data = datum;
+      cell.next = new Lot();
+      frame.last = cell;
+      frame.end = cell.next;
+      if (datum instanceof Forward fd) {
+        fd.hold(cell, -1);
+      }
+    }
+  }
+}
+
+/**
+ * Reads a datum, or the opening of a list or a few, which pushes a frame.
+ *
+ * @return the datum, or {@link #PUSHED}.
+ */
+private Object open() {
+  int label = -1;
+  while (true) {
+    int c = read();
+    switch (c) {
+      case '(' -> {
+        push(false, label);
+        return PUSHED;
+      }
+      case '"' -> {
+        return define(label, readString());
+      }
+      case '#' -> {
+        int d = peek();
+        if (d == '(') {
+          pos += 1;
+          push(true, label);
+          return PUSHED;
+        }
+        else if (d == '\\') {
+          pos += 1;
+          return define(label, readChar());
+        }
+        else if ('0' <= d && d <= '9') {
+          int n = readLabel();
+          int e = read();
+          if (e == '=' && label < 0) {
+            label = n;
+          }
+          else if (e == '#' && label < 0) {
+            return refer(n);
+          }
+          else if (e == '(' && n == 1) {
+            return define(label, readArray("1"));
+          }
+          else {
+            throw unexpected(e);
+          }
+        }
+        else {
+          int length = readToken();
+          if (length == 1 && token[0] == 't') {
+            return define(label, true);
+          }
+          else if (length == 1 && token[0] == 'f') {
+            return define(label, false);
+          }
+          else if (peek() == '(') {
+            String kind = new String(token, 0, length);
+            pos += 1;
+            return define(label, readArray(kind));
+          }
+          else {
+            throw invalid(length);
+          }
+        }
+      }
+      default -> {
+        if (isDelimiter(c)) {
+          throw unexpected(c);
+        }
+        pos -= 1;
+        return define(label, readNumber());
+      }
+    }
+  }
+}
+
+private void push(boolean few, int label) {
+  if (depth == frames.length) {
+    frames = Arrays.copyOf(frames, depth * 2);
+  }
+  Frame frame = frames[depth];
+  if (frame == null) {
+    frame = new Frame();
+    frames[depth] = frame;
+  }
+  depth += 1;
+  frame.few = few;
+  if (few) {
+    frame.size = 0;
+    frame.has_forward = false;
+    frame.forward = label < 0 ? null : new Forward();
+    define(label, frame.forward);
+  }
+  else {
+    frame.head = new Lot();
+    frame.last = null;
+    frame.end = frame.head;
+    frame.dotted = false;
+    frame.tail = null;
+    define(label, frame.head);
+  }
+}
+
+private Object close(Frame frame) {
+  if (frame.few) {
+    Object[] arr = Arrays.copyOf(frame.items, frame.size);
+    Arrays.fill(frame.items, 0, frame.size, null);
+    if (frame.has_forward) {
+      for (int i = 0; i < arr.length; i += 1) {
+        if (arr[i] instanceof Forward fd) {
+          fd.hold(arr, i);
+        }
+      }
+    }
+    Few fw = new Few(arr);
+    if (frame.forward != null) {
+      frame.forward.resolve(fw);
+    }
+    return fw;
+  }
+  else if (frame.dotted) {
+    if (!(frame.tail instanceof Lot tail)) {
+      String msg = String.format(Msg.IMPROPER_TAIL, frame.tail, offset + pos - 1);
+      throw new RuntimeException(msg);
+    }
+    frame.last.next = tail;
+    frame.tail = null;
+    return frame.head;
+  }
+  else {
+    return frame.head;
+  }
+}
+
+private int readLabel() {
+  int n = 0;
+  int c = peek();
+  while ('0' <= c && c <= '9') {
+    if (n > (Integer.MAX_VALUE - 9) / 10) {
+      throw unexpected(c);
+    }
+    n = n * 10 + (c - '0');
+    pos += 1;
+    c = peek();
+  }
+  return n;
+}
+
+private Object define(int label, Object datum) {
+  if (label >= 0) {
+    if (label >= labels.length) {
+      labels = Arrays.copyOf(labels, Math.max(label + 1, labels.length * 2));
+    }
+    labels[label] = datum;
+    label_bound = Math.max(label_bound, label + 1);
+  }
+  return datum;
+}
+
+private Object refer(int label) {
+  Object datum = label < label_bound ? labels[label] : null;
+  if (datum == null) {
+    String msg = String.format(Msg.UNDEFINED_LABEL, label, offset + pos);
+    throw new RuntimeException(msg);
+  }
+  else if (datum instanceof Forward fd && fd.few != null) {
+    return fd.few;
+  }
+  else {
+    return datum;
+  }
+}
+//endregion
+
+
+//region Atoms
+
+private Object readNumber() {
+  int length = readToken();
+  if (isInteger(length)) {
+    if ((int) integer == integer) {
+      return (int) integer;
+    }
+    else {
+      return integer;
+    }
+  }
+  try {
+    return Double.parseDouble(new String(token, 0, length));
+  }
+  catch (NumberFormatException e) {
+    throw invalid(length);
+  }
+}
+
+/**
+ * Parses the token as a decimal integer into {@link #integer}.
+ *
+ * @return false if the token is not an integer or does not fit in a long.
+ */
+private boolean isInteger(int length) {
+  int     i        = 0;
+  boolean negative = false;
+  if (length > 0 && (token[0] == '-' || token[0] == '+')) {
+    negative = token[0] == '-';
+    i = 1;
+  }
+  if (i == length) {
+    return false;
+  }
+  long n = 0;     // accumulated negatively, as Long.MIN_VALUE has no positive counterpart
+  for (; i < length; i += 1) {
+    int digit = token[i] - '0';
+    if (digit < 0 || 9 < digit || n < (Long.MIN_VALUE + digit) / 10) {
+      return false;
+    }
+    n = n * 10 - digit;
+  }
+  if (!negative && n == Long.MIN_VALUE) {
+    return false;
+  }
+  integer = negative ? n : -n;
+  return true;
+}
+
+private static int hexDigit(int c) {
+  if ('0' <= c && c <= '9') {
+    return c - '0';
+  }
+  else if ('A' <= c && c <= 'F') {
+    return c - 'A' + 10;
+  }
+  else if ('a' <= c && c <= 'f') {
+    return c - 'a' + 10;
+  }
+  else {
+    return -1;
+  }
+}
+
+private Character readChar() {
+  int c = read();
+  if (c < 0) {
+    throw unexpected(c);
+  }
+  int length = readToken();
+  if (length == 0) {
+    return (char) c;
+  }
+  if (length < token.length) {
+    System.arraycopy(token, 0, token, 1, length);
+  }
+  else {
+    char[] arr = new char[length * 2];
+    System.arraycopy(token, 0, arr, 1, length);
+    token = arr;
+  }
+  token[0] = (char) c;
+  length += 1;
+  String name = new String(token, 0, length);
+  switch (name) {
+    case "backspace" -> { return '\b'; }
+    case "tab" -> { return '\t'; }
+    case "newline" -> { return '\n'; }
+    case "return" -> { return '\r'; }
+    case "space" -> { return ' '; }
+    default -> {
+      if (c == 'u' && length <= 5) {
+        int code = 0;
+        for (int i = 1; i < length; i += 1) {
+          int digit = hexDigit(token[i]);
+          if (digit < 0) {
+            throw invalid(length);
+          }
+          code = code << 4 | digit;
+        }
+        return (char) code;
+      }
+      throw invalid(length);
+    }
+  }
+}
+
+/**
+ * Reads a string after its opening quote, copying the runs between escapes at once.
+ */
+private String readString() {
+  builder.setLength(0);
+  while (true) {
+    if (pos == limit && !fill()) {
+      throw unexpected(-1);
+    }
+    int start = pos;
+    while (pos < limit && buffer[pos] != '"' && buffer[pos] != '\\') {
+      pos += 1;
+    }
+    builder.append(buffer, start, pos - start);
+    if (pos == limit) {
+      continue;
+    }
+    char c = buffer[pos];
+    pos += 1;
+    if (c == '"') {
+      return builder.toString();
+    }
+    int e = read();
+    switch (e) {
+      case 'b' -> builder.append('\b');
+      case 't' -> builder.append('\t');
+      case 'n' -> builder.append('\n');
+      case 'r' -> builder.append('\r');
+      case '"' -> builder.append('"');
+      case '\\' -> builder.append('\\');
+      default -> throw unexpected(e);
+    }
+  }
+}
+
+/**
+ * Reads the elements of an array after its opening parenthesis, into {@link #integers} or
+ * {@link #decimals}, and copies them to an array of the kind.
+ */
+private Object readArray(String kind) {
+  switch (kind) {
+    case "1", "u8", "i16", "i32", "i64", "f32", "f64" -> { }
+    default -> {
+      String msg = String.format(Msg.INVALID_TOKEN, "#" + kind + "(",
+                                 offset + pos - kind.length() - 2);
+      throw new RuntimeException(msg);
+    }
+  }
+  int n = 0;
+  while (true) {
+    int c = skipSpace();
+    if (c == ')') {
+      pos += 1;
+      break;
+    }
+    else if (c < 0 || c == '(' || c == '"') {
+      throw unexpected(read());
+    }
+    int length = readToken();
+    if (n == integers.length) {
+      integers = Arrays.copyOf(integers, n * 2);
+      decimals = Arrays.copyOf(decimals, n * 2);
+    }
+    switch (kind) {
+      case "1" -> {
+        if (length == 2 && token[0] == '#' && (token[1] == 't' || token[1] == 'f')) {
+          integers[n] = token[1] == 't' ? 1 : 0;
+        }
+        else {
+          throw invalid(length);
+        }
+      }
+      case "u8" -> {
+        int high = length == 2 ? hexDigit(token[0]) : -1;
+        int low  = length == 2 ? hexDigit(token[1]) : -1;
+        if (high < 0 || low < 0) {
+          throw invalid(length);
+        }
+        integers[n] = high << 4 | low;
+      }
+      case "i16", "i32", "i64" -> {
+        if (!isInteger(length) ||
+            kind.equals("i16") && (short) integer != integer ||
+            kind.equals("i32") && (int) integer != integer) {
+          throw invalid(length);
+        }
+        integers[n] = integer;
+      }
+      case "f32", "f64" -> {
+        try {
+          String str = new String(token, 0, length);
+          decimals[n] = kind.equals("f32") ? Float.parseFloat(str) : Double.parseDouble(str);
+        }
+        catch (NumberFormatException e) {
+          throw invalid(length);
+        }
+      }
+      default -> throw invalid(length);
+    }
+    n += 1;
+  }
+  return switch (kind) {
+    case "1" -> {
+      boolean[] bs = new boolean[n];
+      for (int i = 0; i < n; i += 1) {
+        bs[i] = integers[i] != 0;
+      }
+      yield bs;
+    }
+    case "u8" -> {
+      byte[] bs = new byte[n];
+      for (int i = 0; i < n; i += 1) {
+        bs[i] = (byte) integers[i];
+      }
+      yield bs;
+    }
+    case "i16" -> {
+      short[] ss = new short[n];
+      for (int i = 0; i < n; i += 1) {
+        ss[i] = (short) integers[i];
+      }
+      yield ss;
+    }
+    case "i32" -> {
+      int[] ins = new int[n];
+      for (int i = 0; i < n; i += 1) {
+        ins[i] = (int) integers[i];
+      }
+      yield ins;
+    }
+    case "i64" -> Arrays.copyOf(integers, n);
+    case "f32" -> {
+      float[] fs = new float[n];
+      for (int i = 0; i < n; i += 1) {
+        fs[i] = (float) decimals[i];
+      }
+      yield fs;
+    }
+    default -> Arrays.copyOf(decimals, n);
+  };
+}
+//endregion
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.functional.DoubleDo1;
+import essential.functional.DoublePredicate1;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+
+/**
+ * A vector of unboxed doubles, printed as {@code #f64(...)}. Two of them are equal if their
+ * elements are, and it is encoded in the same way as a {@code double[]}.
+ */
+public class DoubleFew {
+
+protected final double[] data;
+
+protected DoubleFew(double[] data) {
+  this.data = data;
+}
+
+@Override
+public boolean equals(Object datum) {
+  if (datum instanceof DoubleFew fw) {
+    return Arrays.equals(data, fw.data);
+  }
+  else {
+    return false;
+  }
+}
+
+@Override
+public int hashCode() {
+  return Arrays.hashCode(data);
+}
+
+@Override
+public String toString() {
+  return Mate.arrayToString(data);
+}
+
+public int length() {
+  return data.length;
+}
+
+public double[] toArray() {
+  return data;
+}
+
+public double ref(int index) {
+  if (0 <= index && index < data.length) {
+    return data[index];
+  }
+  else {
+    String msg = String.format(Msg.INDEX_OUT, index, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+public void set(int index, double datum) {
+  if (0 <= index && index < data.length) {
+    data[index] = datum;
+  }
+  else {
+    String msg = String.format(Msg.INDEX_OUT, index, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+public void fill(double datum) {
+  Arrays.fill(data, datum);
+}
+
+public @NotNull DoubleFew copy() {
+  return new DoubleFew(data.clone());
+}
+
+public @NotNull DoubleFew map(DoubleDo1 fn) {
+  int      length = data.length;
+  double[] arr    = new double[length];
+  for (int i = 0; i < length; i += 1) {
+    arr[i] = fn.apply(data[i]);
+  }
+  return new DoubleFew(arr);
+}
+
+/**
+ * Find the first index satisfying the given predicate.
+ *
+ * @param fn A predicate taking one argument.
+ * @return The index if found, -1 otherwise.
+ */
+public int find(DoublePredicate1 fn) {
+  int length = data.length;
+  for (int i = 0; i < length; i += 1) {
+    if (fn.apply(data[i])) {
+      return i;
+    }
+  }
+  return -1;
+}
+
+/**
+ * Sorts this vector in place in ascending order.
+ */
+public void sort() {
+  Arrays.sort(data);
+}
+
+public @NotNull DoubleFew sorted() {
+  DoubleFew fw = copy();
+  fw.sort();
+  return fw;
+}
+
+/**
+ * @return a few of the boxed elements.
+ */
+public @NotNull Few toFew() {
+  int      length = data.length;
+  Object[] arr    = new Object[length];
+  for (int i = 0; i < length; i += 1) {
+    arr[i] = data[i];
+  }
+  return new Few(arr);
+}
+
+/**
+ * Constructs a vector of the given elements. An array given as the argument is wrapped without
+ * copying.
+ */
+public static @NotNull DoubleFew of(double @NotNull ... args) {
+  return new DoubleFew(args);
+}
+
+public static @NotNull DoubleFew make(int length, double initial) {
+  if (0 <= length) {
+    double[] arr = new double[length];
+    Arrays.fill(arr, initial);
+    return new DoubleFew(arr);
+  }
+  else {
+    String msg = String.format(Msg.LEN_NON_NATURAL, length);
+    throw new RuntimeException(msg);
+  }
+}
+}
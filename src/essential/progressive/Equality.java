@@ -7,39 +7,85 @@
 
 package essential.progressive;
 
-import essential.utilities.RBTree;
+import essential.utilities.Continuation;
+import essential.utilities.IdentityMap;
+
+import java.util.Arrays;
 
 import static essential.progressive.Pr.equal;
 
 
+/**
+ * Compares two data by the union-find algorithm of Adams and Dybvig, "Efficient nondestructive
+ * equality checking for trees and graphs". Two data are equal when their unfoldings are equal, so
+ * cyclic data are compared by their content, whatever their sharing.
+ * <p>
+ * The comparison starts without any bookkeeping, which settles the common small and acyclic data.
+ * When {@link #FAST_STEPS} pairs of containers have been compared, it alternates with stretches of
+ * {@link #SLOW_STEPS} pairs in which each pair is merged into a union-find over the containers,
+ * and a pair already in one class is taken as equal, because it is being compared elsewhere. Such
+ * a pair means a cycle or sharing is being walked, so the slow stretch starts over, and the fast
+ * stretches do not walk the cycle again. The union-find bounds the work on cyclic data, and the
+ * fast stretches keep its cost small on large acyclic data.
+ */
 class Equality {
 
+private static final int FAST_STEPS = 400;
+private static final int SLOW_STEPS = 40;
+
 static boolean process(Object datum1, Object datum2) {
+  if (differFrozen(datum1, datum2)) {
+    return false;
+  }
   Equality inst = new Equality(datum1, datum2);
-  inst.route();
+  try {
+    inst.route();
+  }
+  finally {
+    inst.cont.release();
+  }
   return inst.r0;
 }
 
-private final RBTree  identical1;
-private final RBTree  identical2;
-private       Few     cont;
-private       Object  datum1;
-private       Object  datum2;
-private       int     order;
-private       boolean r0;
+/**
+ * Compares the lengths and hashes cached by freezing, when both data have them.
+ */
+private static boolean differFrozen(Object datum1, Object datum2) {
+  if (datum1 instanceof Few fw1 && datum2 instanceof Few fw2) {
+    return fw1.isHashed() && fw2.isHashed() && fw1.frozenHash() != fw2.frozenHash();
+  }
+  else if (datum1 instanceof Lot lt1 && datum2 instanceof Lot lt2) {
+    int n1 = lt1.frozenLength();
+    int n2 = lt2.frozenLength();
+    return n1 != -2 && n2 != -2 && n1 != n2;
+  }
+  else {
+    return false;
+  }
+}
+
+private final Continuation cont;
+private       Object       datum1;
+private       Object       datum2;
+private       boolean      r0;
+private       boolean      slow;
+private       int          steps;      // left in the current stretch
+private       IdentityMap  nodes;      // allocated when the first slow stretch starts
+private       int[]        parents;
 
 private Equality(Object datum1, Object datum2) {
-  identical1 = Shared.detect(datum1).map(o -> Few.of(false, -1));
-  identical2 = Shared.detect(datum2).map(o -> Few.of(false, -1));
-  cont = Few.of(Label.END_CONT);
+  cont = Continuation.acquire();
   this.datum1 = datum1;
   this.datum2 = datum2;
-  order = 0;
+  slow = false;
+  steps = FAST_STEPS;
+  nodes = null;
+  parents = null;
 }
 
 private void route() {
   //noinspection DuplicatedCode
-  String next = Label.OF_DATUM;
+  int next = Label.OF_DATUM;
   while (true) {
     switch (next) {
       case Label.OF_DATUM -> next = ofDatum();
@@ -49,147 +95,148 @@ private void route() {
   }
 }
 
-private String ofDatum() {
-  if (datum1 == datum2) {
-    r0 = true;
-    return Label.APPLY_CONT;
+/**
+ * Counts a pair of containers about to be compared.
+ *
+ * @return true if the pair is taken as equal without comparing their elements.
+ */
+private boolean isAssumed(Object container1, Object container2) {
+  if (steps == 0) {
+    slow = !slow;
+    steps = slow ? SLOW_STEPS : FAST_STEPS;
+    if (nodes == null) {
+      nodes = new IdentityMap();
+      parents = new int[16];
+    }
   }
-  else if (datum1 instanceof Few && datum2 instanceof Few) {
-    return ofFew();
+  steps -= 1;
+  if (!slow) {
+    return false;
   }
-  else if (datum1 instanceof Lot && datum2 instanceof Lot) {
-    cont = Few.of(Label.ITER_LOT, cont, datum1, datum2);
-    r0 = true;
-    return Label.APPLY_CONT;
+  int root1 = find(node(container1));
+  int root2 = find(node(container2));
+  if (root1 == root2) {
+    steps = SLOW_STEPS;
+    return true;
   }
   else {
-    r0 = equal(datum1, datum2);
-    return Label.APPLY_CONT;
+    parents[root1] = root2;
+    return false;
   }
 }
 
-private String ofFew() {
-  Few fw1 = (Few) datum1;
-  Few fw2 = (Few) datum2;
+private int node(Object container) {
+  int index = nodes.index(container);
+  if (index < 0) {
+    index = nodes.size();
+    nodes.insert(container, null);
+    if (index == parents.length) {
+      parents = Arrays.copyOf(parents, index * 2);
+    }
+    parents[index] = index;
+  }
+  return index;
+}
 
-  int length = fw1.length();
-  if (length != fw2.length()) {
-    r0 = false;
+private int find(int index) {
+  while (parents[index] != index) {
+    parents[index] = parents[parents[index]];
+    index = parents[index];
+  }
+  return index;
+}
+
+private int ofDatum() {
+  if (datum1 == datum2) {
+    r0 = true;
     return Label.APPLY_CONT;
   }
-  else {
-    int key1 = System.identityHashCode(fw1);
-    int key2 = System.identityHashCode(fw2);
-    if (identical1.isPresent(key1) &&
-        identical2.isPresent(key2)) {
-      Few mark1 = (Few) identical1.ref(key1);
-      Few mark2 = (Few) identical2.ref(key2);
-      if ((boolean) mark1.ref(0) &&
-          (boolean) mark2.ref(0)) {
-        r0 = mark1.ref(1) == mark2.ref(1);
-        return Label.APPLY_CONT;
-      }
-      else if ((boolean) mark1.ref(0) ||
-               (boolean) mark2.ref(0)) {
-        r0 = false;
-        return Label.APPLY_CONT;
-      }
-      else {
-        mark1.set(0, true);
-        mark2.set(0, true);
-        mark1.set(1, order);
-        mark2.set(1, order);
-        order += 1;
-        cont = Few.of(Label.ITER_FEW, cont, length, 0, fw1, fw2);
-        r0 = true;
-        return Label.APPLY_CONT;
-      }
+  else if (datum1 instanceof Few fw1 && datum2 instanceof Few fw2) {
+    int length = fw1.length();
+    r0 = length == fw2.length();
+    if (r0 && !isAssumed(fw1, fw2)) {
+      cont.push(Label.ITER_FEW, fw1, fw2, length, 0, 0);
     }
-    else if (identical1.isPresent(key1) ||
-             identical2.isPresent(key2)) {
-      r0 = false;
-      return Label.APPLY_CONT;
-    }
-    else {
-      cont = Few.of(Label.ITER_FEW, cont, length, 0, fw1, fw2);
-      r0 = true;
-      return Label.APPLY_CONT;
+    return Label.APPLY_CONT;
+  }
+  else if (datum1 instanceof PersistentFew pf1 && datum2 instanceof PersistentFew pf2) {
+    int length = pf1.length();
+    r0 = length == pf2.length();
+    if (r0 && !isAssumed(pf1, pf2)) {
+      cont.push(Label.ITER_VEC, pf1, pf2, length, 0, 0);
     }
+    return Label.APPLY_CONT;
+  }
+  else if (datum1 instanceof Lot && datum2 instanceof Lot) {
+    cont.push(Label.ITER_LOT, datum1, datum2);
+    r0 = true;
+    return Label.APPLY_CONT;
+  }
+  else {
+    r0 = equal(datum1, datum2);
+    return Label.APPLY_CONT;
   }
 }
 
-private String applyCont() {
-  String label = (String) cont.ref(0);
+private int applyCont() {
+  int label = cont.kind();
 
   switch (label) {
     case Label.END_CONT -> { return Label.EXIT; }
     case Label.ITER_FEW -> {
-      int length = (int) cont.ref(2);
-      int index  = (int) cont.ref(3);
-      Few fw1    = (Few) cont.ref(4);
-      Few fw2    = (Few) cont.ref(5);
+      Few fw1    = (Few) cont.object(0);
+      Few fw2    = (Few) cont.object(1);
+      int length = cont.number(0);
+      int index  = cont.number(1);
       if (!r0 || index == length) {
-        cont = (Few) cont.ref(1);
+        cont.pop();
         return Label.APPLY_CONT;
       }
       else {
-        cont.set(3, index + 1);
+        cont.setNumber(1, index + 1);
         datum1 = fw1.ref(index);
         datum2 = fw2.ref(index);
         return Label.OF_DATUM;
       }
     }
+    case Label.ITER_VEC -> {
+      PersistentFew pf1    = (PersistentFew) cont.object(0);
+      PersistentFew pf2    = (PersistentFew) cont.object(1);
+      int           length = cont.number(0);
+      int           index  = cont.number(1);
+      if (!r0 || index == length) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setNumber(1, index + 1);
+        datum1 = pf1.ref(index);
+        datum2 = pf2.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
     case Label.ITER_LOT -> {
-      Lot lt1 = (Lot) cont.ref(2);
-      Lot lt2 = (Lot) cont.ref(3);
-      if (lt1.isEmpty() && lt2.isEmpty()) {
-        cont = (Few) cont.ref(1);
+      Lot lt1 = (Lot) cont.object(0);
+      Lot lt2 = (Lot) cont.object(1);
+      if (!r0 || lt1 == lt2) {
+        cont.pop();
         return Label.APPLY_CONT;
       }
-      else if (!r0 || lt1.isEmpty() || lt2.isEmpty()) {
-        r0 = false;
-        cont = (Few) cont.ref(1);
+      else if (lt1.isEmpty() || lt2.isEmpty()) {
+        r0 = lt1.isEmpty() && lt2.isEmpty();
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else if (isAssumed(lt1, lt2)) {
+        cont.pop();
         return Label.APPLY_CONT;
       }
       else {
-        int key1 = System.identityHashCode(lt1);
-        int key2 = System.identityHashCode(lt2);
-        if (identical1.isPresent(key1) &&
-            identical2.isPresent(key2)) {
-          Few mark1 = (Few) identical1.ref(key1);
-          Few mark2 = (Few) identical2.ref(key2);
-          if ((boolean) mark1.ref(0) &&
-              (boolean) mark2.ref(0)) {
-            r0 = mark1.ref(1) == mark2.ref(1);
-            cont = (Few) cont.ref(1);
-            return Label.APPLY_CONT;
-          }
-          else if ((boolean) mark1.ref(0) ||
-                   (boolean) mark2.ref(0)) {
-            r0 = false;
-            cont = (Few) cont.ref(1);
-            return Label.APPLY_CONT;
-          }
-          else {
-            mark1.set(0, true);
-            mark2.set(0, true);
-            mark1.set(1, order);
-            mark2.set(1, order);
-            order += 1;
-            cont.set(2, lt1.cdr());
-            cont.set(3, lt2.cdr());
-            datum1 = lt1.car();
-            datum2 = lt2.car();
-            return Label.OF_DATUM;
-          }
-        }
-        else {
-          cont.set(2, lt1.cdr());
-          cont.set(3, lt2.cdr());
-          datum1 = lt1.car();
-          datum2 = lt2.car();
-          return Label.OF_DATUM;
-        }
+        cont.setObject(0, lt1.next);
+        cont.setObject(1, lt2.next);
+        datum1 = lt1.data;
+        datum2 = lt2.data;
+        return Label.OF_DATUM;
       }
     }
     default -> throw new RuntimeException("undefined continuation " + label);
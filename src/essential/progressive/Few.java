@@ -8,21 +8,56 @@
 package essential.progressive;
 
 import essential.functional.Do1;
+import essential.functional.Do2;
 import essential.functional.Predicate1;
 import essential.functional.Predicate2;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class Few {
 
+static final int FROZEN = Lot.FROZEN;
+static final int PLAIN  = Lot.PLAIN;
+static final int HASHED = 1 << 28;
+
 protected final Object[] data;
+protected       int      meta;
+protected       int      hash;
 
 protected Few(Object[] data) {
   this.data = data;
 }
 
+private void checkMutable() {
+  if (isFrozen()) {
+    String msg = String.format(Msg.FROZEN, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+void freezeAs(int meta, int hash) {
+  this.meta = meta;
+  this.hash = hash;
+}
+
+boolean isPlain() {
+  return (meta & PLAIN) != 0;
+}
+
+boolean isHashed() {
+  return (meta & HASHED) != 0;
+}
+
+int frozenHash() {
+  return hash;
+}
+
 Object[] data() {
   return data;
 }
@@ -37,6 +72,15 @@ public boolean equals(Object datum) {
   }
 }
 
+/**
+ * The hash agrees with {@link #equals}, and covers the length and the first elements to a bounded
+ * depth, so it ends on cyclic data. A frozen few caches it.
+ */
+@Override
+public int hashCode() {
+  return isHashed() ? hash : Mate.hash(this);
+}
+
 @Override
 public String toString() {
   return ToString.process(this);
@@ -46,8 +90,32 @@ public int length() {
   return data.length;
 }
 
+public boolean isFrozen() {
+  return (meta & FROZEN) != 0;
+}
+
+/**
+ * Makes this few, and every lot and few reachable from it, immutable. A frozen structure
+ * remembers whether it has any cycle or shared object, and a frozen few caches its hash when
+ * the elements it hashes are immutable.
+ *
+ * @return this few.
+ */
+public @NotNull Few freeze() {
+  Freezing.process(this);
+  return this;
+}
+
+/**
+ * @return the elements of this few, a copy of them if this few is frozen.
+ */
 public Object[] toArray() {
-  return data;
+  if (isFrozen()) {
+    return data.clone();
+  }
+  else {
+    return data;
+  }
 }
 
 public @NotNull Object ref(int index) {
@@ -61,6 +129,7 @@ public @NotNull Object ref(int index) {
 }
 
 public void set(int index, Object datum) {
+  checkMutable();
   if (0 <= index && index < this.data.length) {
     this.data[index] = datum;
   }
@@ -71,9 +140,21 @@ public void set(int index, Object datum) {
 }
 
 public void fill(@NotNull Object datum) {
+  checkMutable();
   Arrays.fill(this.data, datum);
 }
 
+/**
+ * @return a stream of the elements, which splits by index for parallel use.
+ */
+public @NotNull Stream<Object> stream() {
+  int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+  if (isFrozen()) {
+    characteristics |= Spliterator.IMMUTABLE;
+  }
+  return StreamSupport.stream(Spliterators.spliterator(data, characteristics), false);
+}
+
 public @NotNull Few copy() {
   return new Few(data.clone());
 }
@@ -113,12 +194,70 @@ public int find(Predicate1 fn) {
 }
 
 /**
- * Sorts this Few in place using the specified comparison predicate.
+ * Maps the elements on the common fork-join pool. The function may be called from several
+ * threads, and in any order.
+ */
+public @NotNull Few parallelMap(Do1 fn) {
+  return parallelMap(fn, Parallel.defaultSplit(data.length));
+}
+
+/**
+ * @param split the largest number of elements processed by one task.
+ */
+public @NotNull Few parallelMap(Do1 fn, int split) {
+  return new Few(Parallel.map(fn, data, split));
+}
+
+/**
+ * Keeps the elements satisfying the predicate, in their order, testing them on the common
+ * fork-join pool.
+ */
+public @NotNull Few parallelFilter(Predicate1 fn) {
+  return parallelFilter(fn, Parallel.defaultSplit(data.length));
+}
+
+public @NotNull Few parallelFilter(Predicate1 fn, int split) {
+  return new Few(Parallel.filter(fn, data, split));
+}
+
+/**
+ * Folds the elements from the left, starting with {@code initial}. The chunks are folded on the
+ * common fork-join pool and their results are folded in order by the same function, so it has to
+ * be associative, and to take its own results as either argument.
+ *
+ * @return {@code initial} if this few is empty.
+ */
+public Object parallelReduce(Object initial, Do2 fn) {
+  return parallelReduce(initial, fn, Parallel.defaultSplit(data.length));
+}
+
+public Object parallelReduce(Object initial, Do2 fn, int split) {
+  return Parallel.reduce(initial, fn, data, split);
+}
+
+/**
+ * Finds the first index satisfying the predicate, testing on the common fork-join pool. A chunk
+ * stops once a smaller index is found.
+ *
+ * @return The index if found, -1 otherwise.
+ */
+public int parallelFind(Predicate1 fn) {
+  return parallelFind(fn, Parallel.defaultSplit(data.length));
+}
+
+public int parallelFind(Predicate1 fn, int split) {
+  return Parallel.find(fn, data, split);
+}
+
+/**
+ * Sorts this Few in place using the specified comparison predicate. The sort is stable. For a
+ * long Few the predicate is called from several threads.
  *
  * @param compare A predicate to determine the ordering between two elements.
  */
 public void sort(Predicate2 compare) {
-  Mate.quickSort(compare, this);
+  checkMutable();
+  Sorting.sort(compare, data);
 }
 
 /**
@@ -129,7 +268,7 @@ public void sort(Predicate2 compare) {
  */
 public Few sorted(Predicate2 compare) {
   Few fw = this.copy();
-  Mate.quickSort(compare, fw);
+  Sorting.sort(compare, fw.data);
   return fw;
 }
 
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+
+/**
+ * A growable sequence for collecting an unknown number of elements into a {@link Few}. When the
+ * buffer is exactly full, {@link #toFew()} hands its array to the few without copying.
+ */
+public class FewBuffer {
+
+private static final Object[] EMPTY = new Object[0];
+
+private Object[] data;
+private int      size;
+
+public FewBuffer() {
+  this(10);
+}
+
+/**
+ * @param capacity the number of elements the buffer holds before growing.
+ */
+public FewBuffer(int capacity) {
+  if (capacity < 0) {
+    String msg = String.format(Msg.INVALID_CAPACITY, capacity);
+    throw new RuntimeException(msg);
+  }
+  data = capacity == 0 ? EMPTY : new Object[capacity];
+  size = 0;
+}
+
+@Override
+public String toString() {
+  return String.format("«Few-Buffer %s»", new Few(Arrays.copyOf(data, size)));
+}
+
+public boolean isEmpty() {
+  return size == 0;
+}
+
+public int length() {
+  return size;
+}
+
+public int capacity() {
+  return data.length;
+}
+
+/**
+ * Grows the buffer, if necessary, to hold at least the given number of elements.
+ */
+public void ensureCapacity(int capacity) {
+  if (capacity > data.length) {
+    int new_capacity = Math.max(capacity, data.length + (data.length >> 1) + 1);
+    data = Arrays.copyOf(data, new_capacity);
+  }
+}
+
+/**
+ * Shrinks the capacity to the length, so that {@link #toFew()} does not copy.
+ */
+public void trim() {
+  if (size < data.length) {
+    data = size == 0 ? EMPTY : Arrays.copyOf(data, size);
+  }
+}
+
+public @NotNull Object ref(int index) {
+  checkIndex(index, size);
+  return data[index];
+}
+
+public void set(int index, @NotNull Object datum) {
+  checkIndex(index, size);
+  data[index] = datum;
+}
+
+private void checkIndex(int index, int bound) {
+  if (index < 0 || bound <= index) {
+    String msg = String.format(Msg.INDEX_OUT, index, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+public @NotNull FewBuffer add(@NotNull Object datum) {
+  if (size == data.length) {
+    ensureCapacity(size + 1);
+  }
+  data[size] = datum;
+  size += 1;
+  return this;
+}
+
+public @NotNull FewBuffer addAll(@NotNull Few fw) {
+  int length = fw.data.length;
+  ensureCapacity(size + length);
+  System.arraycopy(fw.data, 0, data, size, length);
+  size += length;
+  return this;
+}
+
+public @NotNull FewBuffer addAll(@NotNull FewBuffer buffer) {
+  ensureCapacity(size + buffer.size);
+  System.arraycopy(buffer.data, 0, data, size, buffer.size);
+  size += buffer.size;
+  return this;
+}
+
+/**
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
+public @NotNull FewBuffer addAll(@NotNull Lot lt) {
+  int length = lt.length();
+  ensureCapacity(size + length);
+  while (!lt.isEmpty()) {
+    data[size] = lt.data;
+    size += 1;
+    lt = lt.next;
+  }
+  return this;
+}
+
+/**
+ * Inserts an element before the given index, which may be the length to add at the end.
+ */
+public void insert(int index, @NotNull Object datum) {
+  checkIndex(index, size + 1);
+  if (size == data.length) {
+    ensureCapacity(size + 1);
+  }
+  System.arraycopy(data, index, data, index + 1, size - index);
+  data[index] = datum;
+  size += 1;
+}
+
+/**
+ * Removes the elements from {@code start} inclusive to {@code bound} exclusive.
+ */
+public void removeRange(int start, int bound) {
+  if (start < 0 || bound < start || size < bound) {
+    String msg = String.format(Msg.RANGE_OUT, start, bound, this);
+    throw new RuntimeException(msg);
+  }
+  System.arraycopy(data, bound, data, start, size - bound);
+  Arrays.fill(data, size - (bound - start), size, null);
+  size -= bound - start;
+}
+
+public void clear() {
+  Arrays.fill(data, 0, size, null);
+  size = 0;
+}
+
+/**
+ * Moves the elements into a few and empties the buffer. The array is handed over without
+ * copying if the buffer is exactly full, otherwise the elements are copied and the capacity is
+ * kept for reuse.
+ */
+public @NotNull Few toFew() {
+  Few fw;
+  if (size == data.length) {
+    fw = new Few(data);
+    data = EMPTY;
+  }
+  else {
+    fw = new Few(Arrays.copyOf(data, size));
+    Arrays.fill(data, 0, size, null);
+  }
+  size = 0;
+  return fw;
+}
+}
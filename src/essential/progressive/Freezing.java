@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.utilities.Continuation;
+import essential.utilities.IdentityMap;
+
+
+/**
+ * Freezes every few and lot reachable from a datum. A plain datum, which has no cycle and no
+ * object reached twice, is a tree: each object is visited once. Otherwise the visited objects are
+ * remembered. The flags and the lengths are cached. A few also caches its hash, which is bounded
+ * and so computed on its own, when every element it hashes is immutable. A frozen object is
+ * skipped, since everything it reaches is frozen already. A persistent few is immutable already,
+ * and is only traversed.
+ */
+class Freezing {
+
+static void process(Object datum) {
+  Freezing inst = new Freezing(datum);
+  try {
+    inst.route();
+  }
+  finally {
+    inst.cont.release();
+  }
+}
+
+private final boolean      plain;
+private final IdentityMap  visited;    // null for a plain datum
+private final Continuation cont;
+private       Object       datum;
+
+private Freezing(Object datum) {
+  plain = Shared.detect(datum).isEmpty();
+  visited = plain ? null : new IdentityMap();
+  cont = Continuation.acquire();
+  this.datum = datum;
+}
+
+private static int lotMeta(boolean plain, int length) {
+  int meta = plain ? Lot.FROZEN | Lot.PLAIN : Lot.FROZEN;
+  if (length < 0) {
+    return meta | Lot.CIRCULAR;
+  }
+  else {
+    return meta | Math.min(length, Lot.UNKNOWN_LENGTH);
+  }
+}
+
+private void route() {
+  //noinspection DuplicatedCode
+  int next = Label.OF_DATUM;
+  while (true) {
+    switch (next) {
+      case Label.OF_DATUM -> next = ofDatum();
+      case Label.APPLY_CONT -> next = applyCont();
+      case Label.EXIT -> { return; }
+    }
+  }
+}
+
+private int ofDatum() {
+  if (!plain && !visited.insert(datum, false)) {
+    return Label.APPLY_CONT;
+  }
+
+  if (datum instanceof Few fw) {
+    if (fw.isFrozen()) {
+      return Label.APPLY_CONT;
+    }
+    else if (fw.length() == 0) {
+      freezeFew(fw);
+      return Label.APPLY_CONT;
+    }
+    else {
+      cont.push(Label.ITER_FEW, fw, null, fw.length(), 1, 0);
+      datum = fw.ref(0);
+      return Label.OF_DATUM;
+    }
+  }
+  else if (datum instanceof PersistentFew pf) {
+    if (pf.isEmpty()) {
+      return Label.APPLY_CONT;
+    }
+    else {
+      cont.push(Label.ITER_VEC, pf, null, pf.length(), 1, 0);
+      datum = pf.ref(0);
+      return Label.OF_DATUM;
+    }
+  }
+  else if (datum instanceof Lot lt) {
+    if (lt.isFrozen()) {
+      return Label.APPLY_CONT;
+    }
+    int length = plain ? Mate.length(lt) : Mate.theHareAndTortoise(lt);
+    lt.freezeAs(lotMeta(plain, length));
+    if (lt.isEmpty()) {
+      return Label.APPLY_CONT;
+    }
+    else {
+      cont.push(Label.ITER_LOT, lt, null, length, 0, 0);
+      datum = lt.car();
+      return Label.OF_DATUM;
+    }
+  }
+  else {
+    return Label.APPLY_CONT;
+  }
+}
+
+private int applyCont() {
+  int label = cont.kind();
+
+  switch (label) {
+    case Label.END_CONT -> { return Label.EXIT; }
+    case Label.ITER_FEW -> {
+      Few fw     = (Few) cont.object(0);
+      int length = cont.number(0);
+      int index  = cont.number(1);
+      if (index == length) {
+        freezeFew(fw);
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setNumber(1, index + 1);
+        datum = fw.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.ITER_VEC -> {
+      PersistentFew pf     = (PersistentFew) cont.object(0);
+      int           length = cont.number(0);
+      int           index  = cont.number(1);
+      if (index == length) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setNumber(1, index + 1);
+        datum = pf.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.ITER_LOT -> {
+      Lot lt     = ((Lot) cont.object(0)).cdr();
+      int length = cont.number(0) < 0 ? -1 : cont.number(0) - 1;
+      if (lt.isFrozen() || (!plain && !visited.insert(lt, false))) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      lt.freezeAs(lotMeta(plain, length));
+      if (lt.isEmpty()) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setObject(0, lt);
+        cont.setNumber(0, length);
+        datum = lt.car();
+        return Label.OF_DATUM;
+      }
+    }
+    default -> throw new RuntimeException("undefined continuation " + label);
+  }
+}
+
+/**
+ * Caches the hash of a few only if no element it hashes can change or hashes apart from
+ * {@link Pr#equal}, so that freezing never changes the result of equals.
+ */
+private void freezeFew(Few fw) {
+  int meta = plain ? Few.FROZEN | Few.PLAIN : Few.FROZEN;
+  if (Mate.isHashStable(fw)) {
+    fw.freezeAs(meta | Few.HASHED, Mate.hash(fw));
+  }
+  else {
+    fw.freezeAs(meta, 0);
+  }
+}
+}
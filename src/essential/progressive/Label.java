@@ -7,13 +7,17 @@
 
 package essential.progressive;
 
+import essential.utilities.Continuation;
+
 class Label {
 
-static final String OF_DATUM   = "of-datum";
-static final String APPLY_CONT = "apply-cont";
-static final String EXIT       = "exit";
+static final int OF_DATUM   = 1;
+static final int APPLY_CONT = 2;
+static final int EXIT       = 3;
 
-static final String END_CONT = "end-cont";
-static final String ITER_FEW = "iter-few";
-static final String ITER_LOT = "iter-lot";
+static final int END_CONT = Continuation.END_CONT;
+static final int ITER_FEW = 1;
+static final int ITER_LOT = 2;
+static final int ITER_VEC = 3;
+static final int RETURN   = 4;      // gives back the object held once the frames above are done
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.functional.Do0;
+import essential.functional.Do1;
+import essential.functional.Predicate1;
+import essential.utilities.IdentityMap;
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * A list whose cells are computed when they are first demanded, and remembered. A lazy lot is
+ * either pending, holding a thunk which gives the cell, or forced, holding a car and a lazy cdr,
+ * or nothing for the empty list. The operations return pending lists, so a pipeline over a large
+ * or unbounded source allocates only the cells which are looked at.
+ */
+public class LazyLot {
+
+public static final LazyLot EMPTY = new LazyLot(null, null, null);
+
+private Do0     thunk;      // null once forced
+private Object  data;
+private LazyLot next;       // null for the empty list
+
+private LazyLot(Do0 thunk, Object data, LazyLot next) {
+  this.thunk = thunk;
+  this.data = data;
+  this.next = next;
+}
+
+/**
+ * @param thunk gives the list, a lazy lot, when first demanded.
+ */
+public static @NotNull LazyLot delay(@NotNull Do0 thunk) {
+  return new LazyLot(thunk, null, null);
+}
+
+/**
+ * @param rest gives the rest of the list, a lazy lot, when first demanded.
+ */
+public static @NotNull LazyLot cons(@NotNull Object datum, @NotNull Do0 rest) {
+  return new LazyLot(null, datum, delay(rest));
+}
+
+private static LazyLot cell(Object datum, LazyLot rest) {
+  return new LazyLot(null, datum, rest);
+}
+
+/**
+ * Runs the thunk, and the thunks of the pending lists it gives, in a loop rather than by
+ * recursion, as the {@code lazy} of SRFI 41 does, so a long chain of delays does not overflow the
+ * stack. Every list of the chain then holds the cell given last.
+ */
+private void force() {
+  if (thunk == null) {
+    return;
+  }
+  LazyLot   lt      = (LazyLot) thunk.apply();
+  FewBuffer pending = null;       // the lists given pending, allocated for a chain of delays
+  while (lt.thunk != null) {
+    if (pending == null) {
+      pending = new FewBuffer();
+    }
+    pending.add(lt);
+    lt = (LazyLot) lt.thunk.apply();
+  }
+  thunk = null;
+  data = lt.data;
+  next = lt.next;
+  if (pending != null) {
+    for (int i = 0; i < pending.length(); i += 1) {
+      LazyLot cell = (LazyLot) pending.ref(i);
+      cell.thunk = null;
+      cell.data = lt.data;
+      cell.next = lt.next;
+    }
+  }
+}
+
+public boolean isForced() {
+  return thunk == null;
+}
+
+public boolean isEmpty() {
+  force();
+  return next == null;
+}
+
+public @NotNull Object car() {
+  if (isEmpty()) {
+    throw new RuntimeException(Msg.LOT_EMPTY);
+  }
+  else {
+    return data;
+  }
+}
+
+public @NotNull LazyLot cdr() {
+  if (isEmpty()) {
+    throw new RuntimeException(Msg.LOT_EMPTY);
+  }
+  else {
+    return next;
+  }
+}
+
+/**
+ * Prints the cells forced so far, and {@code ...} for the rest.
+ */
+@Override
+public String toString() {
+  StringBuilder builder = new StringBuilder("«Lazy-Lot (");
+  IdentityMap   seen    = new IdentityMap();
+  LazyLot       lt      = this;
+  while (lt.isForced() && lt.next != null && seen.insert(lt, false)) {
+    if (lt != this) {
+      builder.append(' ');
+    }
+    builder.append(Pr.toString(lt.data));
+    lt = lt.next;
+  }
+  if (!lt.isForced() || lt.next != null) {
+    builder.append(lt == this ? "..." : " ...");
+  }
+  return builder.append(")»").toString();
+}
+
+public @NotNull LazyLot map(@NotNull Do1 fn) {
+  LazyLot source = this;
+  return delay(() -> {
+    if (source.isEmpty()) {
+      return EMPTY;
+    }
+    else {
+      return cell(fn.apply(source.car()), source.cdr().map(fn));
+    }
+  });
+}
+
+public @NotNull LazyLot filter(@NotNull Predicate1 fn) {
+  LazyLot source = this;
+  return delay(() -> {
+    LazyLot lt = source;
+    while (!lt.isEmpty()) {
+      if (fn.apply(lt.data)) {
+        return cell(lt.data, lt.next.filter(fn));
+      }
+      lt = lt.next;
+    }
+    return EMPTY;
+  });
+}
+
+/**
+ * @return the list of the first {@code n} elements, or of all if there are fewer.
+ */
+public @NotNull LazyLot take(int n) {
+  LazyLot source = this;
+  return delay(() -> {
+    if (n <= 0 || source.isEmpty()) {
+      return EMPTY;
+    }
+    else {
+      return cell(source.car(), source.cdr().take(n - 1));
+    }
+  });
+}
+
+/**
+ * @return the list without the first {@code n} elements, empty if there are fewer.
+ */
+public @NotNull LazyLot drop(int n) {
+  LazyLot source = this;
+  return delay(() -> {
+    LazyLot lt = source;
+    for (int i = 0; i < n && !lt.isEmpty(); i += 1) {
+      lt = lt.next;
+    }
+    return lt;
+  });
+}
+
+/**
+ * @return the list of the pairs {@code #(a b)} of the elements in the same position, as long as
+ * the shorter list.
+ */
+public @NotNull LazyLot zip(@NotNull LazyLot other) {
+  LazyLot source = this;
+  return delay(() -> {
+    if (source.isEmpty() || other.isEmpty()) {
+      return EMPTY;
+    }
+    else {
+      return cell(Few.of(source.car(), other.car()), source.cdr().zip(other.cdr()));
+    }
+  });
+}
+
+/**
+ * Forces every cell. It does not return for an unbounded list.
+ *
+ * @return a lot of the elements.
+ */
+public @NotNull Lot toLot() {
+  LotBuilder builder = new LotBuilder();
+  LazyLot    lt      = this;
+  while (!lt.isEmpty()) {
+    builder.add(lt.data);
+    lt = lt.next;
+  }
+  return builder.build();
+}
+
+public static @NotNull LazyLot from(@NotNull Lot lt) {
+  return delay(() -> {
+    if (lt.isEmpty()) {
+      return EMPTY;
+    }
+    else {
+      return cell(lt.car(), from(lt.cdr()));
+    }
+  });
+}
+
+public static @NotNull LazyLot from(@NotNull Few fw) {
+  return from(fw, 0);
+}
+
+private static LazyLot from(Few fw, int index) {
+  return delay(() -> {
+    if (index == fw.length()) {
+      return EMPTY;
+    }
+    else {
+      return cell(fw.data[index], from(fw, index + 1));
+    }
+  });
+}
+
+/**
+ * @return the unbounded list of {@code seed}, {@code fn(seed)}, {@code fn(fn(seed))} and so on.
+ */
+public static @NotNull LazyLot iterate(@NotNull Object seed, @NotNull Do1 fn) {
+  return cell(seed, delay(() -> iterate(fn.apply(seed), fn)));
+}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.functional.LongDo1;
+import essential.functional.LongPredicate1;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+
+/**
+ * A vector of unboxed 64-bit longs, printed as {@code #i64(...)}. Two of them are equal if their
+ * elements are, and it is encoded in the same way as a {@code long[]}.
+ */
+public class LongFew {
+
+protected final long[] data;
+
+protected LongFew(long[] data) {
+  this.data = data;
+}
+
+@Override
+public boolean equals(Object datum) {
+  if (datum instanceof LongFew fw) {
+    return Arrays.equals(data, fw.data);
+  }
+  else {
+    return false;
+  }
+}
+
+@Override
+public int hashCode() {
+  return Arrays.hashCode(data);
+}
+
+@Override
+public String toString() {
+  return Mate.arrayToString(data);
+}
+
+public int length() {
+  return data.length;
+}
+
+public long[] toArray() {
+  return data;
+}
+
+public long ref(int index) {
+  if (0 <= index && index < data.length) {
+    return data[index];
+  }
+  else {
+    String msg = String.format(Msg.INDEX_OUT, index, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+public void set(int index, long datum) {
+  if (0 <= index && index < data.length) {
+    data[index] = datum;
+  }
+  else {
+    String msg = String.format(Msg.INDEX_OUT, index, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+public void fill(long datum) {
+  Arrays.fill(data, datum);
+}
+
+public @NotNull LongFew copy() {
+  return new LongFew(data.clone());
+}
+
+public @NotNull LongFew map(LongDo1 fn) {
+  int    length = data.length;
+  long[] arr    = new long[length];
+  for (int i = 0; i < length; i += 1) {
+    arr[i] = fn.apply(data[i]);
+  }
+  return new LongFew(arr);
+}
+
+/**
+ * Find the first index satisfying the given predicate.
+ *
+ * @param fn A predicate taking one argument.
+ * @return The index if found, -1 otherwise.
+ */
+public int find(LongPredicate1 fn) {
+  int length = data.length;
+  for (int i = 0; i < length; i += 1) {
+    if (fn.apply(data[i])) {
+      return i;
+    }
+  }
+  return -1;
+}
+
+/**
+ * Sorts this vector in place in ascending order.
+ */
+public void sort() {
+  Arrays.sort(data);
+}
+
+public @NotNull LongFew sorted() {
+  LongFew fw = copy();
+  fw.sort();
+  return fw;
+}
+
+/**
+ * @return a few of the boxed elements.
+ */
+public @NotNull Few toFew() {
+  int      length = data.length;
+  Object[] arr    = new Object[length];
+  for (int i = 0; i < length; i += 1) {
+    arr[i] = data[i];
+  }
+  return new Few(arr);
+}
+
+/**
+ * Constructs a vector of the given elements. An array given as the argument is wrapped without
+ * copying.
+ */
+public static @NotNull LongFew of(long @NotNull ... args) {
+  return new LongFew(args);
+}
+
+public static @NotNull LongFew make(int length, long initial) {
+  if (0 <= length) {
+    long[] arr = new long[length];
+    Arrays.fill(arr, initial);
+    return new LongFew(arr);
+  }
+  else {
+    String msg = String.format(Msg.LEN_NON_NATURAL, length);
+    throw new RuntimeException(msg);
+  }
+}
+}
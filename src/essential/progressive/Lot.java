@@ -12,11 +12,22 @@ import essential.functional.Predicate1;
 import essential.functional.Predicate2;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 
 public class Lot {
 
+// The flags and the cached length of a frozen lot share one int, which fits in the padding of
+// a cell. A length too large for the field is left UNKNOWN_LENGTH.
+static final int FROZEN         = 1 << 30;
+static final int PLAIN          = 1 << 29;
+static final int CIRCULAR       = 1 << 28;
+static final int UNKNOWN_LENGTH = CIRCULAR - 1;
+
 protected Object data;
 protected Lot    next;
+protected int    meta;
 
 protected Lot() {
   this.data = null;
@@ -29,13 +40,46 @@ protected Lot(Object data, Lot next) {
 }
 
 void setData(@NotNull Object datum) {
+  checkMutable();
   this.data = datum;
 }
 
 void setNext(@NotNull Lot lt) {
+  checkMutable();
   this.next = lt;
 }
 
+private void checkMutable() {
+  if (isFrozen()) {
+    String msg = String.format(Msg.FROZEN, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+void freezeAs(int meta) {
+  this.meta = meta;
+}
+
+/**
+ * @return the cached length of this frozen lot, -1 if it is circular in breadth, -2 if unknown.
+ */
+int frozenLength() {
+  if ((meta & FROZEN) == 0) {
+    return -2;
+  }
+  else if ((meta & CIRCULAR) != 0) {
+    return -1;
+  }
+  else {
+    int n = meta & UNKNOWN_LENGTH;
+    return n == UNKNOWN_LENGTH ? -2 : n;
+  }
+}
+
+boolean isPlain() {
+  return (meta & PLAIN) != 0;
+}
+
 @Override
 public boolean equals(Object datum) {
   if (datum instanceof Lot lt) {
@@ -46,6 +90,15 @@ public boolean equals(Object datum) {
   }
 }
 
+/**
+ * The hash agrees with {@link #equals}, and covers the first elements to a bounded depth, so it
+ * ends on cyclic data.
+ */
+@Override
+public int hashCode() {
+  return Mate.hash(this);
+}
+
 @Override
 public String toString() {
   return ToString.process(this);
@@ -55,6 +108,22 @@ public boolean isEmpty() {
   return data == null && next == null;
 }
 
+public boolean isFrozen() {
+  return (meta & FROZEN) != 0;
+}
+
+/**
+ * Makes this lot, and every lot and few reachable from it, immutable. A frozen structure
+ * remembers its lengths and whether it has any cycle or shared object, so the operations which
+ * would check for them can skip the work.
+ *
+ * @return this lot.
+ */
+public @NotNull Lot freeze() {
+  Freezing.process(this);
+  return this;
+}
+
 public int length() {
   int n = Mate.theHareAndTortoise(this);
   if (n == -1) {
@@ -129,150 +198,154 @@ public @NotNull Object ref(int index) {
   throw new RuntimeException(msg);
 }
 
+/**
+ * @return a stream of the elements, unbounded if this lot is circular in breadth.
+ */
+public @NotNull Stream<Object> stream() {
+  return StreamSupport.stream(new LotSpliterator(this), false);
+}
+
+/**
+ * @throws RuntimeException if this lot is circular in breadth, found while reversing it.
+ */
 public @NotNull Lot reverse() {
   if (this.isEmpty()) {
     return this;
   }
-  else if (this.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, this);
-    throw new RuntimeException(msg);
-  }
-  else {
-    Lot head = new Lot(this.car(), new Lot());
-    Lot next = this.cdr();
-    while (!next.isEmpty()) {
-      head = new Lot(next.car(), head);
-      next = next.cdr();
-    }
-    return head;
+  CycleGuard guard = new CycleGuard(this);
+  Lot        head  = new Lot();
+  Lot        xxx   = this;
+  while (!xxx.isEmpty()) {
+    head = new Lot(xxx.data, head);
+    xxx = xxx.next;
+    guard.step(xxx);
   }
+  return head;
 }
 
+/**
+ * Copies the first elements while walking to the index, so a circular lot needs no check.
+ */
 public @NotNull Lot head(int index) {
-  if (index == 0) {
-    return new Lot();
-  }
-  else if (this.isBreadthCircle() || (0 <= index && index <= Mate.length(this))) {
-    int i    = index - 1;
-    Lot head = new Lot(this.car(), new Lot());
-    Lot lll  = head;
-    Lot xxx  = this.cdr();
-    while (i > 0) {
-      lll.next = new Lot(xxx.car(), new Lot());
-      lll = lll.cdr();
-      xxx = xxx.cdr();
-      i -= 1;
-    }
-    return head;
-  }
-  else {
+  if (index < 0) {
     String msg = String.format(Msg.INDEX_OUT, index, this);
     throw new RuntimeException(msg);
   }
+  LotBuilder builder = new LotBuilder();
+  Lot        xxx     = this;
+  for (int i = 0; i < index; i += 1) {
+    if (xxx.isEmpty()) {
+      String msg = String.format(Msg.INDEX_OUT, index, this);
+      throw new RuntimeException(msg);
+    }
+    builder.add(xxx.data);
+    xxx = xxx.next;
+  }
+  return builder.build();
 }
 
 public @NotNull Lot tail(int index) {
-  if (this.isBreadthCircle() || (0 <= index && index <= Mate.length(this))) {
-    Lot lt = this;
-    int i  = index;
-    while (i > 0) {
-      lt = lt.cdr();
-      i -= 1;
-    }
-    return lt;
-  }
-  else {
+  if (index < 0) {
     String msg = String.format(Msg.INDEX_OUT, index, this);
     throw new RuntimeException(msg);
   }
+  Lot lt = this;
+  for (int i = 0; i < index; i += 1) {
+    if (lt.isEmpty()) {
+      String msg = String.format(Msg.INDEX_OUT, index, this);
+      throw new RuntimeException(msg);
+    }
+    lt = lt.next;
+  }
+  return lt;
 }
 
 public @NotNull Lot copy() {
-  if (this.isEmpty()) {
-    return new Lot();
-  }
-  else if (this.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, this);
-    throw new RuntimeException(msg);
-  }
-  else {
-    Lot head = new Lot(this.car(), new Lot());
-    Lot lll  = head;
-    Lot xxx  = this.cdr();
-    while (!xxx.isEmpty()) {
-      lll.next = new Lot(xxx.car(), new Lot());
-      lll = lll.cdr();
-      xxx = xxx.cdr();
-    }
-    return head;
+  CycleGuard guard   = new CycleGuard(this);
+  LotBuilder builder = new LotBuilder();
+  Lot        xxx     = this;
+  while (!xxx.isEmpty()) {
+    builder.add(xxx.data);
+    xxx = xxx.next;
+    guard.step(xxx);
   }
+  return builder.build();
 }
 
 public @NotNull Few toFew() {
-  if (this.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, this);
-    throw new RuntimeException(msg);
-  }
-  int length = Mate.length(this);
+  int length = this.length();
   Few fw     = Few.make(length, 0);
   Lot lt     = this;
   for (int i = 0; i < length; i += 1) {
-    fw.set(i, lt.car());
-    lt = lt.cdr();
+    fw.data[i] = lt.data;
+    lt = lt.next;
   }
   return fw;
 }
 
+/**
+ * The elements are copied first, which finds the cycle of a circular lot before the predicate is
+ * applied, and the cells of the copy which are kept are then relinked.
+ *
+ * @throws RuntimeException if this lot is circular in breadth.
+ */
 public @NotNull Lot filter(Predicate1 fn) {
   if (this.isEmpty()) {
     return this;
   }
-  if (this.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, this);
-    throw new RuntimeException(msg);
-  }
-  Lot head = new Lot(false, new Lot());
-  Lot lll  = head;
-  Lot xxx  = this;
+  Lot head = null;
+  Lot last = null;
+  Lot xxx  = this.copy();
   while (!xxx.isEmpty()) {
-    if (fn.apply(xxx.car())) {
-      lll.next = new Lot(xxx.car(), new Lot());
-      lll = lll.cdr();
+    if (fn.apply(xxx.data)) {
+      if (last == null) {
+        head = xxx;
+      }
+      else {
+        last.next = xxx;
+      }
+      last = xxx;
     }
-    xxx = xxx.cdr();
+    xxx = xxx.next;
+  }
+  if (last == null) {
+    return xxx;
+  }
+  else {
+    last.next = xxx;
+    return head;
   }
-  return head.cdr();
 }
 
+/**
+ * The elements are copied first, which finds the cycle of a circular lot before the procedure is
+ * applied, and the elements of the copy are then replaced.
+ *
+ * @throws RuntimeException if this lot is circular in breadth.
+ */
 public @NotNull Lot map(Do1 fn) {
   if (this.isEmpty()) {
     return this;
   }
-  if (this.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, this);
-    throw new RuntimeException(msg);
-  }
-  Lot head = new Lot(fn.apply(this.car()), new Lot());
-  Lot lll  = head;
-  Lot xxx  = this.cdr();
+  Lot copy = this.copy();
+  Lot xxx  = copy;
   while (!xxx.isEmpty()) {
-    lll.next = new Lot(fn.apply(xxx.car()), new Lot());
-    lll = lll.cdr();
-    xxx = xxx.cdr();
+    xxx.data = fn.apply(xxx.data);
+    xxx = xxx.next;
   }
-  return head;
+  return copy;
 }
 
 /**
  * Returns a new Lot containing the elements sorted according to the specified comparison predicate.
+ * The sort is stable, and the cells of a copy are relinked, so only the new lot is allocated.
  *
  * @param compare A predicate to determine the ordering between two elements.
  * @return A new Lot with elements sorted based on the given predicate.
+ * @throws RuntimeException if this lot is circular in breadth.
  */
 public Lot sorted(Predicate2 compare) {
-  Few fw = this.toFew();
-  Mate.quickSort(compare, fw);
-  return fw.toLot();
+  return Sorting.sortCells(compare, this.copy());
 }
 
 /**
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * Builds a lot from front to back. The builder holds the empty lot which ends the list being
+ * built, and adding an element turns that empty lot into a cell in place, so each element costs
+ * one allocation. Building hands the cells over without copying, and resets the builder.
+ */
+public class LotBuilder {
+
+private Lot head;
+private Lot last;       // the last cell, null while the list is empty
+private Lot end;        // the empty lot ending the list
+private int length;
+
+public LotBuilder() {
+  reset();
+}
+
+private void reset() {
+  end = new Lot();
+  head = end;
+  last = null;
+  length = 0;
+}
+
+public boolean isEmpty() {
+  return length == 0;
+}
+
+public int length() {
+  return length;
+}
+
+public @NotNull LotBuilder add(@NotNull Object datum) {
+  Lot new_end = new Lot();
+  end.data = datum;
+  end.next = new_end;
+  last = end;
+  end = new_end;
+  length += 1;
+  return this;
+}
+
+/**
+ * Adds the elements of a lot.
+ *
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
+public @NotNull LotBuilder addAll(@NotNull Lot lt) {
+  if (lt.isBreadthCircle()) {
+    String msg = String.format(Msg.CIRCULAR_BREADTH, lt);
+    throw new RuntimeException(msg);
+  }
+  while (!lt.isEmpty()) {
+    add(lt.data);
+    lt = lt.next;
+  }
+  return this;
+}
+
+public @NotNull LotBuilder addAll(@NotNull Few fw) {
+  for (Object datum : fw.data) {
+    add(datum);
+  }
+  return this;
+}
+
+/**
+ * Moves the elements of another builder to the end of this one, without copying them. The other
+ * builder becomes empty.
+ */
+public @NotNull LotBuilder addAll(@NotNull LotBuilder builder) {
+  if (builder.last != null) {
+    if (last == null) {
+      head = builder.head;
+    }
+    else {
+      last.next = builder.head;
+    }
+    last = builder.last;
+    end = builder.end;
+    length += builder.length;
+    builder.reset();
+  }
+  return this;
+}
+
+/**
+ * @return the lot of the added elements. The builder becomes empty.
+ */
+public @NotNull Lot build() {
+  Lot lt = head;
+  reset();
+  return lt;
+}
+
+/**
+ * Ends the added elements with the given lot instead of an empty one, sharing it.
+ *
+ * @param tail the lot to follow the added elements.
+ * @return the lot of the added elements followed by {@code tail}. The builder becomes empty.
+ */
+public @NotNull Lot build(@NotNull Lot tail) {
+  if (last == null) {
+    return tail;
+  }
+  else {
+    last.next = tail;
+    Lot lt = head;
+    reset();
+    return lt;
+  }
+}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+
+/**
+ * Splits a lot by taking batches off its front into arrays, growing by {@link #BATCH_UNIT} each
+ * time, since the middle of a lot cannot be reached without walking to it. The size is known only
+ * for a frozen lot. A circular lot gives an unbounded stream.
+ */
+class LotSpliterator implements Spliterator<Object> {
+
+private static final int BATCH_UNIT = 1 << 10;
+private static final int MAX_BATCH  = 1 << 25;
+
+private Lot  rest;
+private long estimate;
+private int  batch;
+private int  characteristics;
+
+LotSpliterator(Lot lt) {
+  rest = lt;
+  int length = lt.frozenLength();
+  if (length >= 0) {
+    estimate = length;
+    characteristics = ORDERED | NONNULL | IMMUTABLE | SIZED;
+  }
+  else {
+    estimate = Long.MAX_VALUE;
+    characteristics = lt.isFrozen() ? ORDERED | NONNULL | IMMUTABLE : ORDERED | NONNULL;
+  }
+  batch = 0;
+}
+
+@Override
+public boolean tryAdvance(Consumer<? super Object> action) {
+  if (rest.isEmpty()) {
+    return false;
+  }
+  else {
+    Object datum = rest.data;
+    rest = rest.next;
+    action.accept(datum);
+    return true;
+  }
+}
+
+@Override
+public void forEachRemaining(Consumer<? super Object> action) {
+  Lot lt = rest;
+  rest = new Lot();
+  while (!lt.isEmpty()) {
+    action.accept(lt.data);
+    lt = lt.next;
+  }
+}
+
+@Override
+public Spliterator<Object> trySplit() {
+  if (rest.isEmpty() || estimate <= 1) {
+    return null;
+  }
+  int n = (int) Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), estimate);
+  Object[] arr = new Object[n];
+  int      j   = 0;
+  Lot      lt  = rest;
+  while (j < n && !lt.isEmpty()) {
+    arr[j] = lt.data;
+    j += 1;
+    lt = lt.next;
+  }
+  rest = lt;
+  batch = n;
+  if (estimate != Long.MAX_VALUE) {
+    estimate -= j;
+  }
+  return Spliterators.spliterator(arr, 0, j, ORDERED | NONNULL);
+}
+
+@Override
+public long estimateSize() {
+  return estimate;
+}
+
+@Override
+public int characteristics() {
+  return characteristics;
+}
+}
@@ -7,86 +7,20 @@
 
 package essential.progressive;
 
-import essential.functional.Do1;
-import essential.functional.Predicate2;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.Array;
-
-import static essential.progressive.Pr.cons;
-import static essential.progressive.Pr.eq;
+import java.util.Arrays;
 
 
 class Mate {
 
-//region Few
-
-static void quickSort(Predicate2 compare, @NotNull Few fw) {
-  Lot stack = Lot.of(0, fw.length());
-  while (!stack.isEmpty()) {
-    int start = (int) stack.car();
-    int bound = (int) stack.ref(1);
-    if (bound - start < 15) {
-      stack = stack.cddr();
-      insertionSort(compare, fw, start, bound);
-    }
-    else {
-      int p = partition(compare, fw, start, bound);
-      stack = cons(p + 1, cons(bound, stack.cddr()));
-      stack = cons(start, cons(p, stack));
-    }
-  }
-}
-
-private static int partition(@NotNull Predicate2 compare, @NotNull Few fw, int start, int bound) {
-  int mid = (start + bound) / 2;
-  bound -= 1;
-  if (compare.apply(fw.ref(mid), fw.ref(start))) {
-    swap(fw, start, mid);
-  }
-  if (compare.apply(fw.ref(bound), fw.ref(start))) {
-    swap(fw, bound, start);
-  }
-  if (compare.apply(fw.ref(mid), fw.ref(bound))) {
-    swap(fw, mid, bound);
-  }
-  Object pivot = fw.ref(bound);
-
-  int i = start;
-  while (start < bound) {
-    if (compare.apply(fw.ref(start), pivot)) {
-      swap(fw, i, start);
-      i += 1;
-    }
-    start += 1;
-  }
-  swap(fw, i, bound);
-  return i;
-}
-
-private static void swap(@NotNull Few fw, int i, int j) {
-  Object tmp = fw.ref(i);
-  fw.set(i, fw.ref(j));
-  fw.set(j, tmp);
-}
-
-private static void insertionSort(Predicate2 compare, @NotNull Few fw, int start, int bound) {
-  for (int i = start + 1; i < bound; i += 1) {
-    Object key = fw.ref(i);
-    int    j   = i - 1;
-    while (start <= j && compare.apply(key, fw.ref(j))) {
-      fw.set(j + 1, fw.ref(j));
-      j -= 1;
-    }
-    fw.set(j + 1, key);
-  }
-}
-//endregion
-
-
 //region Lot
 
 static int length(@NotNull Lot lt) {
+  int cached = lt.frozenLength();
+  if (cached >= 0) {
+    return cached;
+  }
   int n = 0;
   while (!lt.isEmpty()) {
     n += 1;
@@ -95,122 +29,216 @@ static int length(@NotNull Lot lt) {
   return n;
 }
 
-static boolean isBelong(Object datum, @NotNull Lot lt) {
-  while (!lt.isEmpty()) {
-    if (eq(datum, lt.car())) {
-      return true;
-    }
-    lt = lt.cdr();
-  }
-  return false;
-}
-
+/**
+ * Counts the cells with Brent's algorithm: the tortoise waits at a cell while the hare runs
+ * ahead, and jumps to the hare after a doubling number of steps. Each cell is visited once by the
+ * hare alone, where Floyd's algorithm walks half the list a second time with the tortoise.
+ *
+ * @return the length, -1 if circular in breadth.
+ */
 static int theHareAndTortoise(@NotNull Lot lt) {
-  if (lt.isEmpty()) {
-    return 0;
-  }
-  else if (lt.cdr().isEmpty()) {
-    return 1;
+  int cached = lt.frozenLength();
+  if (cached != -2) {
+    return cached;
   }
-  else {
-    Lot hare     = lt.cddr();
-    Lot tortoise = lt;
-    int count    = 1;
-    while (true) {
-      if (hare.isEmpty()) {
-        return count * 2;
-      }
-      else if (hare.cdr().isEmpty()) {
-        return count * 2 + 1;
-      }
-      else if (hare == tortoise) {
-        return -1;
-      }
-      else {
-        hare = hare.cddr();
-        tortoise = tortoise.cdr();
-        count += 1;
-      }
+  Lot hare     = lt;
+  Lot tortoise = lt;
+  int power    = 1;
+  int steps    = 0;
+  int count    = 0;
+  while (!hare.isEmpty()) {
+    hare = hare.next;
+    count += 1;
+    if (hare == tortoise) {
+      return -1;
+    }
+    steps += 1;
+    if (steps == power) {
+      tortoise = hare;
+      power <<= 1;
+      steps = 0;
     }
   }
+  return count;
 }
 //endregion
 
 
 //region To String
 
+// The printers append to a builder: the text of a character, a string or an array is written
+// straight from its values, without boxing them or parsing a format.
+
 static @NotNull String charToString(char c) {
+  StringBuilder builder = new StringBuilder(8);
+  appendChar(builder, c);
+  return builder.toString();
+}
+
+static void appendChar(@NotNull StringBuilder builder, char c) {
   switch (c) {
-    case 8 -> { return "#\\backspace"; }
-    case 9 -> { return "#\\tab"; }
-    case 0xA -> { return "#\\newline"; }
-    case 0xD -> { return "#\\return"; }
-    case 0x20 -> { return "#\\space"; }
+    case 8 -> builder.append("#\\backspace");
+    case 9 -> builder.append("#\\tab");
+    case 0xA -> builder.append("#\\newline");
+    case 0xD -> builder.append("#\\return");
+    case 0x20 -> builder.append("#\\space");
     default -> {
       if (Character.isISOControl(c)) {
-        return String.format("#\\u%X", (int) c);
+        builder.append("#\\u");
+        int shift = 12;
+        while (shift > 0 && (c >> shift) == 0) {
+          shift -= 4;
+        }
+        for (; shift >= 0; shift -= 4) {
+          builder.append(HEX_STR[(c >> shift) & 0xF]);
+        }
       }
       else {
-        return String.format("#\\%c", c);
+        builder.append("#\\").append(c);
       }
     }
   }
 }
 
 static @NotNull String dataString(@NotNull String str) {
-  int           bound   = str.length();
-  StringBuilder builder = new StringBuilder("\"");
+  StringBuilder builder = new StringBuilder(str.length() + 2);
+  appendString(builder, str);
+  return builder.toString();
+}
+
+/**
+ * Appends the string quoted, copying the runs of characters between escapes at once.
+ */
+static void appendString(@NotNull StringBuilder builder, @NotNull String str) {
+  int bound = str.length();
+  int start = 0;
+  builder.append('"');
   for (int i = 0; i < bound; i += 1) {
-    char c = str.charAt(i);
-    switch (c) {
-      case '\b' -> builder.append("\\b");
-      case '\t' -> builder.append("\\t");
-      case '\n' -> builder.append("\\n");
-      case '\r' -> builder.append("\\r");
-      case '"' -> builder.append("\\\"");
-      case '\\' -> builder.append("\\\\");
-      default -> builder.append(c);
+    String escape = switch (str.charAt(i)) {
+      case '\b' -> "\\b";
+      case '\t' -> "\\t";
+      case '\n' -> "\\n";
+      case '\r' -> "\\r";
+      case '"' -> "\\\"";
+      case '\\' -> "\\\\";
+      default -> null;
+    };
+    if (escape != null) {
+      builder.append(str, start, i).append(escape);
+      start = i + 1;
     }
   }
-  builder.append('"');
-  return builder.toString();
+  builder.append(str, start, bound).append('"');
 }
 
 private static final char[] HEX_STR = new char[]{'0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
                                                  'A', 'B', 'C', 'D', 'E', 'F'};
 
-private static @NotNull String hexOfByte(byte b) {
-  return new String(new char[]{HEX_STR[(b >> 4) & 0xF], HEX_STR[b & 0xF]});
+static @NotNull String arrayToString(@NotNull Object array) {
+  StringBuilder builder = new StringBuilder();
+  appendArray(builder, array);
+  return builder.toString();
 }
 
-static @NotNull String arrayToString(@NotNull Object array) {
-  return switch (array) {
-    case boolean[] bs -> String.format("#1(%s)", arrayToStringMate(Pr::toString, bs, bs.length));
-    case byte[] bs ->
-        String.format("#u8(%s)", arrayToStringMate(o -> hexOfByte((byte) o), bs, bs.length));
-    case short[] ss -> String.format("#i16(%s)", arrayToStringMate(Object::toString, ss, ss.length));
-    case int[] ins -> String.format("#i32(%s)", arrayToStringMate(Object::toString, ins, ins.length));
-    case long[] ls -> String.format("#i64(%s)", arrayToStringMate(Object::toString, ls, ls.length));
-    case float[] fs -> String.format("#f32(%s)", arrayToStringMate(Object::toString, fs, fs.length));
-    case double[] ds -> String.format("#f64(%s)", arrayToStringMate(Object::toString, ds, ds.length));
+// The most characters reserved ahead for the elements of an array, beyond which the builder grows
+// as it goes.
+private static final int RESERVE_LIMIT = 1 << 20;
+
+/**
+ * Reserves room for the elements of an array, at an estimate of the characters per element.
+ */
+private static void reserve(StringBuilder builder, int length, int per_element) {
+  long wanted = Math.min((long) length * per_element, RESERVE_LIMIT);
+  builder.ensureCapacity(builder.length() + 8 + (int) wanted);
+}
+
+static void appendArray(@NotNull StringBuilder builder, @NotNull Object array) {
+  switch (array) {
+    case boolean[] bs -> {
+      reserve(builder, bs.length, 3);
+      builder.append("#1(");
+      for (int i = 0; i < bs.length; i += 1) {
+        if (i != 0) {
+          builder.append(' ');
+        }
+        builder.append(bs[i] ? "#t" : "#f");
+      }
+    }
+    case byte[] bs -> {
+      reserve(builder, bs.length, 3);
+      builder.append("#u8(");
+      for (int i = 0; i < bs.length; i += 1) {
+        if (i != 0) {
+          builder.append(' ');
+        }
+        builder.append(HEX_STR[(bs[i] >> 4) & 0xF]).append(HEX_STR[bs[i] & 0xF]);
+      }
+    }
+    case short[] ss -> {
+      reserve(builder, ss.length, 5);
+      builder.append("#i16(");
+      for (int i = 0; i < ss.length; i += 1) {
+        if (i != 0) {
+          builder.append(' ');
+        }
+        builder.append(ss[i]);
+      }
+    }
+    case int[] ins -> {
+      reserve(builder, ins.length, 6);
+      builder.append("#i32(");
+      for (int i = 0; i < ins.length; i += 1) {
+        if (i != 0) {
+          builder.append(' ');
+        }
+        builder.append(ins[i]);
+      }
+    }
+    case long[] ls -> {
+      reserve(builder, ls.length, 8);
+      builder.append("#i64(");
+      for (int i = 0; i < ls.length; i += 1) {
+        if (i != 0) {
+          builder.append(' ');
+        }
+        builder.append(ls[i]);
+      }
+    }
+    case float[] fs -> {
+      reserve(builder, fs.length, 8);
+      builder.append("#f32(");
+      for (int i = 0; i < fs.length; i += 1) {
+        if (i != 0) {
+          builder.append(' ');
+        }
+        builder.append(fs[i]);
+      }
+    }
+    case double[] ds -> {
+      reserve(builder, ds.length, 10);
+      builder.append("#f64(");
+      for (int i = 0; i < ds.length; i += 1) {
+        if (i != 0) {
+          builder.append(' ');
+        }
+        builder.append(ds[i]);
+      }
+    }
     default ->
         throw new RuntimeException(String.format("unsupported array type %s for printing", array));
-  };
+  }
+  builder.append(')');
 }
 
-static @NotNull String arrayToStringMate(Do1 fn, Object array, int bound) {
-  if (bound == 0) {
-    return "";
-  }
-  else {
-    StringBuilder builder = new StringBuilder();
-    bound = bound - 1;
-    for (int i = 0; i < bound; i = i + 1) {
-      builder.append(fn.apply(Array.get(array, i)));
-      builder.append(" ");
-    }
-    builder.append(fn.apply(Array.get(array, bound)));
-    return builder.toString();
+/**
+ * Appends the text of {@link Pr#toString(Object)} for a datum other than a few or a lot.
+ */
+static void appendAtom(@NotNull StringBuilder builder, Object datum) {
+  switch (datum) {
+    case Character c -> appendChar(builder, c);
+    case String str -> appendString(builder, str);
+    case Object array when array.getClass().isArray() -> appendArray(builder, array);
+    case null, default -> builder.append(Pr.toString(datum));
   }
 }
 //endregion
@@ -242,4 +270,169 @@ static boolean numberLess(@NotNull Number n1, Number n2) {
   };
 }
 //endregion
+
+
+//region Hash
+
+// The structural hash of a few or a lot folds the hashes of its elements from a seed, so that
+// #() and () differ. It agrees with Pr.equal on atoms: 0.0 and -0.0 hash alike.
+static final int FEW_SEED = 0x3D;
+static final int LOT_SEED = 0x7F;
+static final int VEC_SEED = 0x5B;
+
+// The number of elements hashed in a few or a lot at each depth, below which only the seed and
+// the length of a few count. Equal data unfold into equal trees, whatever their sharing, so
+// hashing a bounded part of the tree agrees with Pr.equal and ends on cycles.
+private static final int[] HASH_WIDTHS = {16, 4, 2, 1};
+
+static final int LOT_HASH_WIDTH = HASH_WIDTHS[0];
+
+static int fold(int hash, int element_hash) {
+  return hash * 31 + element_hash;
+}
+
+/**
+ * @return the structural hash of the first elements of a datum, to a bounded depth, without
+ * allocating.
+ */
+static int hash(Object datum) {
+  return hash(datum, 0);
+}
+
+static int hash(Object datum, int depth) {
+  if (datum instanceof Few fw) {
+    Object[] data   = fw.data;
+    int      result = fold(FEW_SEED, data.length);
+    if (depth < HASH_WIDTHS.length) {
+      int width = Math.min(data.length, HASH_WIDTHS[depth]);
+      for (int i = 0; i < width; i += 1) {
+        result = fold(result, hash(data[i], depth + 1));
+      }
+    }
+    return result;
+  }
+  else if (datum instanceof Lot lt) {
+    int result = LOT_SEED;
+    if (depth < HASH_WIDTHS.length) {
+      int width = HASH_WIDTHS[depth];
+      for (int i = 0; i < width && !lt.isEmpty(); i += 1) {
+        result = fold(result, hash(lt.data, depth + 1));
+        lt = lt.next;
+      }
+    }
+    return result;
+  }
+  else if (datum instanceof PersistentFew pf) {
+    int result = fold(VEC_SEED, pf.length());
+    if (depth < HASH_WIDTHS.length) {
+      int width = Math.min(pf.length(), HASH_WIDTHS[depth]);
+      for (int i = 0; i < width; i += 1) {
+        result = fold(result, hash(pf.ref(i), depth + 1));
+      }
+    }
+    return result;
+  }
+  else {
+    return atomHash(datum);
+  }
+}
+
+/**
+ * @return true if every element hashed in a few being frozen is immutable and hashes in line with
+ * {@link Pr#equal}, so the hash cached by freezing stays valid. The lots and fews it reaches are
+ * frozen by the same freezing, so only the atoms are checked. Primitive arrays and primitive fews
+ * are hashed by their contents, which freezing leaves mutable.
+ */
+static boolean isHashStable(Object datum) {
+  return isHashStable(datum, 0);
+}
+
+private static boolean isHashStable(Object datum, int depth) {
+  if (datum instanceof Few fw) {
+    Object[] data = fw.data;
+    if (depth < HASH_WIDTHS.length) {
+      int width = Math.min(data.length, HASH_WIDTHS[depth]);
+      for (int i = 0; i < width; i += 1) {
+        if (!isHashStable(data[i], depth + 1)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+  else if (datum instanceof Lot lt) {
+    if (depth < HASH_WIDTHS.length) {
+      int width = HASH_WIDTHS[depth];
+      for (int i = 0; i < width && !lt.isEmpty(); i += 1) {
+        if (!isHashStable(lt.data, depth + 1)) {
+          return false;
+        }
+        lt = lt.next;
+      }
+    }
+    return true;
+  }
+  else if (datum instanceof PersistentFew pf) {
+    if (depth < HASH_WIDTHS.length) {
+      int width = Math.min(pf.length(), HASH_WIDTHS[depth]);
+      for (int i = 0; i < width; i += 1) {
+        if (!isHashStable(pf.ref(i), depth + 1)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+  else {
+    return switch (datum) {
+      case Byte ignored -> true;
+      case Short ignored -> true;
+      case Integer ignored -> true;
+      case Long ignored -> true;
+      case Float ignored -> true;
+      case Double ignored -> true;
+      case Boolean ignored -> true;
+      case Character ignored -> true;
+      case String ignored -> true;
+      default -> false;
+    };
+  }
+}
+
+static int atomHash(@NotNull Object datum) {
+  return switch (datum) {
+    case Double d -> d == 0.0 ? 0 : Double.hashCode(d);
+    case Float f -> f == 0.0f ? 0 : Float.hashCode(f);
+    case boolean[] bs -> Arrays.hashCode(bs);
+    case byte[] bs -> Arrays.hashCode(bs);
+    case short[] ss -> Arrays.hashCode(ss);
+    case int[] ins -> Arrays.hashCode(ins);
+    case long[] ls -> Arrays.hashCode(ls);
+    case float[] fs -> Arrays.hashCode(fs);
+    case double[] ds -> Arrays.hashCode(ds);
+    default -> HASH_FOLLOWS_EQUALS.get(datum.getClass()) ?
+               datum.hashCode() :
+               datum.getClass().getName().hashCode();
+  };
+}
+
+/**
+ * Whether the hashCode of a type agrees with its equals: equals is not overridden below the class
+ * declaring hashCode. Objects of other types are hashed by their class only, which agrees with any
+ * equals that tells types apart.
+ */
+private static final ClassValue<Boolean> HASH_FOLLOWS_EQUALS = new ClassValue<>() {
+  @Override
+  protected Boolean computeValue(@NotNull Class<?> type) {
+    try {
+      Class<?> equals_owner = type.getMethod("equals", Object.class).getDeclaringClass();
+      Class<?> hash_owner   = type.getMethod("hashCode").getDeclaringClass();
+      return equals_owner.isAssignableFrom(hash_owner);
+    }
+    catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+};
+//endregion
 }
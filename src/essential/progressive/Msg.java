@@ -14,6 +14,19 @@ static final String CIRCULAR_BREADTH = "%s is circular in breadth";
 static final String LOT_EMPTY        = "Lot () is empty";
 static final String INDEX_OUT        = "index %s is out of range for %s";
 static final String LEN_NON_NATURAL  = "length %s is not a natural number";
+static final String FROZEN           = "%s is frozen";
+static final String RANGE_OUT        = "range [%s, %s) is out of range for %s";
+static final String INVALID_CAPACITY = "capacity %s is not a natural number";
+static final String INVALID_SPLIT    = "split threshold %s is not a positive number";
+static final String NOT_SEQUENCE     = "%s is neither a lot nor a few";
+static final String INVALID_LIMIT    = "limit %s is not a natural number";
+
+// Reading
+static final String UNEXPECTED_CHAR = "unexpected %s at %s";
+static final String UNEXPECTED_END  = "unexpected end of text at %s";
+static final String INVALID_TOKEN   = "invalid %s at %s";
+static final String UNDEFINED_LABEL = "undefined label #%s# at %s";
+static final String IMPROPER_TAIL   = "%s after a dot is not a lot at %s";
 
 // Comparison
 static final String UNDEFINED_ARR_COMPARE = "undefined array type %s and %s for comparing in size";
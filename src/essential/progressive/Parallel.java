@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.functional.Do1;
+import essential.functional.Do2;
+import essential.functional.Predicate1;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * The bulk operations of a few on the common fork-join pool. The elements are cut into chunks of
+ * at most the split threshold, the chunks are processed as tasks, and their results are combined
+ * in the order of the chunks, so the results do not depend on the scheduling.
+ */
+class Parallel {
+
+private static final int MIN_SPLIT = 512;
+
+/**
+ * @return a split threshold giving each thread of the pool about four chunks.
+ */
+static int defaultSplit(int length) {
+  int parallelism = ForkJoinPool.getCommonPoolParallelism();
+  return Math.max(MIN_SPLIT, length / (parallelism * 4));
+}
+
+@FunctionalInterface
+private interface Work {
+  void apply(int chunk, int start, int bound);
+}
+
+@SuppressWarnings("serial")
+private static class Task extends RecursiveAction {
+
+  private final Work work;
+  private final int  length;
+  private final int  split;
+  private final int  first;      // the chunks from first inclusive to last exclusive
+  private final int  last;
+
+  Task(Work work, int length, int split, int first, int last) {
+    this.work = work;
+    this.length = length;
+    this.split = split;
+    this.first = first;
+    this.last = last;
+  }
+
+  @Override
+  protected void compute() {
+    if (last - first == 1) {
+      int start = first * split;
+      work.apply(first, start, Math.min(start + split, length));
+    }
+    else {
+      int mid = (first + last) >>> 1;
+      invokeAll(new Task(work, length, split, first, mid),
+                new Task(work, length, split, mid, last));
+    }
+  }
+}
+
+private static int chunks(int length, int split) {
+  if (split < 1) {
+    String msg = String.format(Msg.INVALID_SPLIT, split);
+    throw new RuntimeException(msg);
+  }
+  return (int) (((long) length + split - 1) / split);
+}
+
+private static void run(int length, int split, int chunks, Work work) {
+  if (chunks == 1) {
+    work.apply(0, 0, length);
+  }
+  else if (chunks > 1) {
+    ForkJoinPool.commonPool().invoke(new Task(work, length, split, 0, chunks));
+  }
+}
+
+static Object[] map(Do1 fn, Object[] data, int split) {
+  int      length = data.length;
+  Object[] arr    = new Object[length];
+  run(length, split, chunks(length, split), (chunk, start, bound) -> {
+    for (int i = start; i < bound; i += 1) {
+      arr[i] = fn.apply(data[i]);
+    }
+  });
+  return arr;
+}
+
+static Object[] filter(Predicate1 fn, Object[] data, int split) {
+  int        length = data.length;
+  int        chunks = chunks(length, split);
+  Object[][] kept   = new Object[chunks][];
+  run(length, split, chunks, (chunk, start, bound) -> {
+    Object[] arr = new Object[bound - start];
+    int      n   = 0;
+    for (int i = start; i < bound; i += 1) {
+      if (fn.apply(data[i])) {
+        arr[n] = data[i];
+        n += 1;
+      }
+    }
+    kept[chunk] = n == arr.length ? arr : Arrays.copyOf(arr, n);
+  });
+
+  int total = 0;
+  for (Object[] arr : kept) {
+    total += arr.length;
+  }
+  Object[] arr = new Object[total];
+  int      n   = 0;
+  for (Object[] part : kept) {
+    System.arraycopy(part, 0, arr, n, part.length);
+    n += part.length;
+  }
+  return arr;
+}
+
+static Object reduce(Object initial, Do2 fn, Object[] data, int split) {
+  int      length   = data.length;
+  int      chunks   = chunks(length, split);
+  Object[] partials = new Object[chunks];
+  run(length, split, chunks, (chunk, start, bound) -> {
+    Object acc = data[start];
+    for (int i = start + 1; i < bound; i += 1) {
+      acc = fn.apply(acc, data[i]);
+    }
+    partials[chunk] = acc;
+  });
+
+  Object acc = initial;
+  for (Object partial : partials) {
+    acc = fn.apply(acc, partial);
+  }
+  return acc;
+}
+
+static int find(Predicate1 fn, Object[] data, int split) {
+  int           length = data.length;
+  AtomicInteger found  = new AtomicInteger(Integer.MAX_VALUE);
+  run(length, split, chunks(length, split), (chunk, start, bound) -> {
+    for (int i = start; i < bound && i < found.get(); i += 1) {
+      if (fn.apply(data[i])) {
+        found.accumulateAndGet(i, Math::min);
+        return;
+      }
+    }
+  });
+  int index = found.get();
+  return index == Integer.MAX_VALUE ? -1 : index;
+}
+}
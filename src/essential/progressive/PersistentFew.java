@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+
+/**
+ * An immutable sequence whose updates return a new version sharing most of its structure with
+ * the old one. The elements are kept in a tree of 32-wide nodes, plus a tail node holding the last
+ * 1 to 32 elements, so {@link #ref}, {@link #set}, {@link #add} and {@link #removeLast} take
+ * O(log<sub>32</sub> n) time and copy at most one node per level.
+ * <p>
+ * It is printed and encoded as a few. Two of them are equal if their elements are.
+ */
+public class PersistentFew {
+
+private static final int BITS  = 5;
+private static final int WIDTH = 1 << BITS;
+private static final int MASK  = WIDTH - 1;
+
+private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+public static final PersistentFew EMPTY = new PersistentFew(0, BITS, EMPTY_NODE, new Object[0]);
+
+private final int      count;
+private final int      shift;      // the bits of an index consumed above the leaves
+private final Object[] root;
+private final Object[] tail;
+
+private PersistentFew(int count, int shift, Object[] root, Object[] tail) {
+  this.count = count;
+  this.shift = shift;
+  this.root = root;
+  this.tail = tail;
+}
+
+@Override
+public boolean equals(Object datum) {
+  if (datum instanceof PersistentFew pf) {
+    return Equality.process(this, pf);
+  }
+  else {
+    return false;
+  }
+}
+
+@Override
+public int hashCode() {
+  return Mate.hash(this);
+}
+
+@Override
+public String toString() {
+  return ToString.process(this);
+}
+
+public int length() {
+  return count;
+}
+
+public boolean isEmpty() {
+  return count == 0;
+}
+
+private int tailOffset() {
+  return count <= WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+}
+
+/**
+ * @return the leaf holding the element at the index, which must be in range.
+ */
+Object[] leafFor(int index) {
+  if (index >= tailOffset()) {
+    return tail;
+  }
+  Object[] node = root;
+  for (int level = shift; level > 0; level -= BITS) {
+    node = (Object[]) node[(index >>> level) & MASK];
+  }
+  return node;
+}
+
+private void checkIndex(int index) {
+  if (index < 0 || count <= index) {
+    String msg = String.format(Msg.INDEX_OUT, index, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+public @NotNull Object ref(int index) {
+  checkIndex(index);
+  return leafFor(index)[index & MASK];
+}
+
+/**
+ * @return a version with the element at the index replaced.
+ */
+public @NotNull PersistentFew set(int index, @NotNull Object datum) {
+  checkIndex(index);
+  if (index >= tailOffset()) {
+    Object[] new_tail = tail.clone();
+    new_tail[index & MASK] = datum;
+    return new PersistentFew(count, shift, root, new_tail);
+  }
+  else {
+    return new PersistentFew(count, shift, setIn(shift, root, index, datum), tail);
+  }
+}
+
+private static Object[] setIn(int level, Object[] node, int index, Object datum) {
+  Object[] new_node = node.clone();
+  if (level == 0) {
+    new_node[index & MASK] = datum;
+  }
+  else {
+    int sub = (index >>> level) & MASK;
+    new_node[sub] = setIn(level - BITS, (Object[]) node[sub], index, datum);
+  }
+  return new_node;
+}
+
+/**
+ * @return a version with the element added at the end.
+ */
+public @NotNull PersistentFew add(@NotNull Object datum) {
+  if (count - tailOffset() < WIDTH) {
+    Object[] new_tail = Arrays.copyOf(tail, tail.length + 1);
+    new_tail[tail.length] = datum;
+    return new PersistentFew(count + 1, shift, root, new_tail);
+  }
+
+  Object[] new_root;
+  int      new_shift = shift;
+  if ((count >>> BITS) > (1 << shift)) {
+    new_root = new Object[WIDTH];
+    new_root[0] = root;
+    new_root[1] = newPath(shift, tail);
+    new_shift += BITS;
+  }
+  else {
+    new_root = pushTail(shift, root, tail);
+  }
+  return new PersistentFew(count + 1, new_shift, new_root, new Object[]{datum});
+}
+
+private Object[] pushTail(int level, Object[] node, Object[] leaf) {
+  Object[] new_node = node.clone();
+  int      sub      = ((count - 1) >>> level) & MASK;
+  if (level == BITS) {
+    new_node[sub] = leaf;
+  }
+  else if (node[sub] == null) {
+    new_node[sub] = newPath(level - BITS, leaf);
+  }
+  else {
+    new_node[sub] = pushTail(level - BITS, (Object[]) node[sub], leaf);
+  }
+  return new_node;
+}
+
+private static Object[] newPath(int level, Object[] leaf) {
+  if (level == 0) {
+    return leaf;
+  }
+  else {
+    Object[] node = new Object[WIDTH];
+    node[0] = newPath(level - BITS, leaf);
+    return node;
+  }
+}
+
+/**
+ * @return a version without the last element.
+ * @throws RuntimeException if this is empty.
+ */
+public @NotNull PersistentFew removeLast() {
+  if (count == 0) {
+    String msg = String.format(Msg.INDEX_OUT, -1, this);
+    throw new RuntimeException(msg);
+  }
+  else if (count == 1) {
+    return EMPTY;
+  }
+  else if (count - tailOffset() > 1) {
+    return new PersistentFew(count - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+  }
+
+  Object[] new_tail  = leafFor(count - 2);
+  Object[] new_root  = popTail(shift, root);
+  int      new_shift = shift;
+  if (new_root == null) {
+    new_root = EMPTY_NODE;
+  }
+  if (shift > BITS && new_root[1] == null) {
+    new_root = (Object[]) new_root[0];
+    new_shift -= BITS;
+  }
+  return new PersistentFew(count - 1, new_shift, new_root, new_tail);
+}
+
+private Object[] popTail(int level, Object[] node) {
+  int sub = ((count - 2) >>> level) & MASK;
+  if (level > BITS) {
+    Object[] new_child = popTail(level - BITS, (Object[]) node[sub]);
+    if (new_child == null && sub == 0) {
+      return null;
+    }
+    Object[] new_node = node.clone();
+    new_node[sub] = new_child;
+    return new_node;
+  }
+  else if (sub == 0) {
+    return null;
+  }
+  else {
+    Object[] new_node = node.clone();
+    new_node[sub] = null;
+    return new_node;
+  }
+}
+
+public @NotNull Few toFew() {
+  Object[] arr = new Object[count];
+  for (int i = 0; i < count; i += WIDTH) {
+    Object[] leaf = leafFor(i);
+    System.arraycopy(leaf, 0, arr, i, Math.min(WIDTH, count - i));
+  }
+  return new Few(arr);
+}
+
+public @NotNull Lot toLot() {
+  Lot lt = new Lot();
+  for (int i = count - 1; 0 <= i; i -= 1) {
+    lt = new Lot(ref(i), lt);
+  }
+  return lt;
+}
+
+/**
+ * Constructs a persistent few of the given elements. The tree is built level by level, without
+ * the copying of adding the elements one at a time.
+ */
+public static @NotNull PersistentFew of(@NotNull Object @NotNull ... args) {
+  return build(args);
+}
+
+public static @NotNull PersistentFew from(@NotNull Few fw) {
+  return build(fw.data);
+}
+
+/**
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
+public static @NotNull PersistentFew from(@NotNull Lot lt) {
+  return build(lt.toFew().data);
+}
+
+private static PersistentFew build(Object[] arr) {
+  int count = arr.length;
+  if (count == 0) {
+    return EMPTY;
+  }
+
+  int      tail_offset = count <= WIDTH ? 0 : ((count - 1) >>> BITS) << BITS;
+  Object[] tail        = Arrays.copyOfRange(arr, tail_offset, count);
+  if (tail_offset == 0) {
+    return new PersistentFew(count, BITS, EMPTY_NODE, tail);
+  }
+
+  Object[][] nodes = new Object[tail_offset >>> BITS][];
+  for (int i = 0; i < nodes.length; i += 1) {
+    nodes[i] = Arrays.copyOfRange(arr, i << BITS, (i + 1) << BITS);
+  }
+  int shift = BITS;
+  while (nodes.length > WIDTH) {
+    nodes = group(nodes);
+    shift += BITS;
+  }
+  return new PersistentFew(count, shift, Arrays.copyOf(nodes, WIDTH, Object[].class), tail);
+}
+
+private static Object[][] group(Object[][] nodes) {
+  Object[][] parents = new Object[(nodes.length + MASK) >>> BITS][];
+  for (int i = 0; i < parents.length; i += 1) {
+    parents[i] = new Object[WIDTH];
+    int start = i << BITS;
+    System.arraycopy(nodes, start, parents[i], 0, Math.min(WIDTH, nodes.length - start));
+  }
+  return parents;
+}
+}
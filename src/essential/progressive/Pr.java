@@ -8,6 +8,8 @@
 package essential.progressive;
 
 import essential.datetime.Time;
+import essential.functional.Do1;
+import essential.functional.Predicate1;
 import essential.functional.Predicate2;
 import org.jetbrains.annotations.NotNull;
 
@@ -36,6 +38,135 @@ public static void setCdr(@NotNull Lot lt1, @NotNull Lot lt2) {
   }
 }
 
+/**
+ * Checks that a lot can be updated in place: it is not circular in breadth and none of its cells
+ * is frozen, so that an update does not fail halfway.
+ *
+ * @return the empty lot ending the lot.
+ */
+private static Lot checkLinear(@NotNull Lot lt) {
+  CycleGuard guard = new CycleGuard(lt);
+  Lot        xxx   = lt;
+  while (!xxx.isEmpty()) {
+    if (xxx.isFrozen()) {
+      String msg = String.format(Msg.FROZEN, lt);
+      throw new RuntimeException(msg);
+    }
+    xxx = xxx.next;
+    guard.step(xxx);
+  }
+  return xxx;
+}
+
+/**
+ * Sorts a lot by relinking its cells, without allocating any. The sort is stable. The given lot
+ * becomes one of the cells of the sorted lot, which must be used through the returned lot.
+ *
+ * @param compare a predicate to determine the ordering between two elements.
+ * @return the sorted lot.
+ * @throws RuntimeException if the lot is frozen or circular in breadth.
+ */
+public static @NotNull Lot sortInPlace(@NotNull Predicate2 compare, @NotNull Lot lt) {
+  checkLinear(lt);
+  return Sorting.sortCells(compare, lt);
+}
+
+/**
+ * Reverses a lot by turning its cells around, without allocating any. The given lot becomes the
+ * last cell, and the reversed lot must be used through the returned lot. The whole lot is checked
+ * before any cell is relinked, so the cells are relinked directly and a failure leaves the lot as
+ * it was.
+ *
+ * @return the reversed lot.
+ * @throws RuntimeException if the lot is frozen or circular in breadth.
+ */
+public static @NotNull Lot reverseInPlace(@NotNull Lot lt) {
+  Lot end      = checkLinear(lt);
+  Lot reversed = end;
+  Lot xxx      = lt;
+  while (xxx != end) {
+    Lot next = xxx.next;
+    xxx.next = reversed;
+    reversed = xxx;
+    xxx = next;
+  }
+  return reversed;
+}
+
+/**
+ * Links the last cell of {@code lt1} to {@code lt2}, which is shared, not copied.
+ *
+ * @return {@code lt1} followed by {@code lt2}, or {@code lt2} if {@code lt1} is empty.
+ * @throws RuntimeException if the last cell of {@code lt1} is frozen, or {@code lt1} is circular
+ *                          in breadth.
+ */
+public static @NotNull Lot appendInPlace(@NotNull Lot lt1, @NotNull Lot lt2) {
+  if (lt1.isEmpty()) {
+    return lt2;
+  }
+  CycleGuard guard = new CycleGuard(lt1);
+  Lot        last  = lt1;
+  while (!last.next.isEmpty()) {
+    last = last.next;
+    guard.step(last);
+  }
+  last.setNext(lt2);
+  return lt1;
+}
+
+/**
+ * Unlinks the cells whose elements fail the predicate. The kept cells stay in order and are
+ * followed by the empty lot which ended the given lot. The whole lot is checked before any cell is
+ * relinked, so the cells are relinked directly and a failure leaves the lot as it was.
+ *
+ * @return the first kept cell, or the empty end if none is kept.
+ * @throws RuntimeException if the lot is frozen or circular in breadth.
+ */
+public static @NotNull Lot filterInPlace(@NotNull Predicate1 fn, @NotNull Lot lt) {
+  checkLinear(lt);
+  Lot head = null;
+  Lot last = null;
+  Lot xxx  = lt;
+  while (!xxx.isEmpty()) {
+    if (fn.apply(xxx.data)) {
+      if (last == null) {
+        head = xxx;
+      }
+      else if (last.next != xxx) {
+        last.next = xxx;
+      }
+      last = xxx;
+    }
+    xxx = xxx.next;
+  }
+  if (last == null) {
+    return xxx;
+  }
+  else {
+    if (last.next != xxx) {
+      last.next = xxx;
+    }
+    return head;
+  }
+}
+
+/**
+ * Replaces each element of a lot by the result of the procedure on it. The whole lot is checked
+ * before any element is replaced, so the cells are updated directly.
+ *
+ * @return the given lot.
+ * @throws RuntimeException if the lot is frozen or circular in breadth.
+ */
+public static @NotNull Lot mapInPlace(@NotNull Do1 fn, @NotNull Lot lt) {
+  checkLinear(lt);
+  Lot xxx = lt;
+  while (!xxx.isEmpty()) {
+    xxx.data = fn.apply(xxx.data);
+    xxx = xxx.next;
+  }
+  return lt;
+}
+
 public static @NotNull Lot cons(@NotNull Object datum, @NotNull Lot lt) {
   return new Lot(datum, lt);
 }
@@ -52,48 +183,52 @@ public static @NotNull Lot append(@NotNull Lot lt1, @NotNull Lot lt2) {
   if (lt1.isEmpty()) {
     return lt2;
   }
-  else if (lt1.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, lt1);
-    throw new RuntimeException(msg);
-  }
-  else {
-    Lot head = new Lot(lt1.car(), new Lot());
-    Lot lll  = head;
-    Lot xxx  = lt1.cdr();
-    while (!xxx.isEmpty()) {
-      lll.setNext(new Lot(xxx.car(), new Lot()));
-      lll = lll.cdr();
-      xxx = xxx.cdr();
-    }
-    lll.setNext(lt2);
-    return head;
+  CycleGuard guard   = new CycleGuard(lt1);
+  LotBuilder builder = new LotBuilder();
+  Lot        xxx     = lt1;
+  while (!xxx.isEmpty()) {
+    builder.add(xxx.data);
+    xxx = xxx.next;
+    guard.step(xxx);
   }
+  return builder.build(lt2);
 }
 
+/**
+ * The lot is checked for a cycle while it is searched. Once the datum is found, the rest of the
+ * lot is only walked for the check.
+ *
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
 public static boolean isBelong(Object datum, @NotNull Lot lt) {
-  if (lt.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, lt);
-    throw new RuntimeException(msg);
-  }
-  else {
-    return Mate.isBelong(datum, lt);
-  }
+  return isBelong(Pr::eq, datum, lt);
 }
 
+/**
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
 public static boolean isBelong(Predicate2 fn, Object datum, @NotNull Lot lt) {
-  if (lt.isBreadthCircle()) {
-    String msg = String.format(Msg.CIRCULAR_BREADTH, lt);
-    throw new RuntimeException(msg);
-  }
-  else {
-    while (!lt.isEmpty()) {
-      if (fn.apply(datum, lt.car())) {
-        return true;
-      }
-      lt = lt.cdr();
+  CycleGuard guard = new CycleGuard(lt);
+  boolean    found = false;
+  Lot        xxx   = lt;
+  while (!xxx.isEmpty()) {
+    if (!found && fn.apply(datum, xxx.data)) {
+      found = true;
     }
-    return false;
+    xxx = xxx.next;
+    guard.step(xxx);
   }
+  return found;
+}
+
+/**
+ * Copies a datum with its nested lots, fews and primitive arrays, keeping their sharing and
+ * cycles. Immutable objects are not copied.
+ *
+ * @return a mutable copy of the datum.
+ */
+public static Object deepCopy(Object datum) {
+  return Copying.process(datum);
 }
 //endregion
 
@@ -157,6 +292,32 @@ public static boolean equal(Object datum1, Object datum2) {
   }
 }
 
+/**
+ * @return a hash agreeing with {@link #eq}: numbers, booleans and characters hash by their values,
+ * and other objects by identity.
+ */
+public static int eqHash(Object datum) {
+  if (datum instanceof Number || datum instanceof Boolean || datum instanceof Character) {
+    return Mate.atomHash(datum);
+  }
+  else {
+    return System.identityHashCode(datum);
+  }
+}
+
+/**
+ * @return a hash agreeing with {@link #equal}. It covers the first elements of a few or a lot to a
+ * bounded depth, so it ends on cyclic data.
+ */
+public static int equalHash(@NotNull Object datum) {
+  if (datum instanceof Few fw) {
+    return fw.hashCode();
+  }
+  else {
+    return Mate.hash(datum);
+  }
+}
+
 /**
  * The types supported to compare size:
  * <ul><li>Number</li>
@@ -233,5 +394,49 @@ public static @NotNull String toString(Object datum) {
   else if (datum.getClass().isArray()) { return Mate.arrayToString(datum); }
   else { return datum.toString(); }
 }
+
+/**
+ * Writes the text of {@link #toString(Object)} to the output as the datum is traversed.
+ */
+public static void write(Object datum, @NotNull Appendable out) {
+  Writing.process(datum, out, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+}
+
+/**
+ * Writes the text of a datum, eliding what goes beyond the limits with {@code ...}. The parts
+ * elided are not traversed.
+ *
+ * @param max_depth    the number of nested containers to print, deeper ones are elided.
+ * @param max_elements the number of elements to print in each container.
+ * @param max_chars    the number of characters to print before the text is cut.
+ * @throws RuntimeException if a limit is negative, or wrapping the {@code IOException} of the
+ *                          output.
+ */
+public static void write(Object datum, @NotNull Appendable out,
+                         int max_depth, int max_elements, int max_chars) {
+  for (int limit : new int[]{max_depth, max_elements, max_chars}) {
+    if (limit < 0) {
+      String msg = String.format(Msg.INVALID_LIMIT, limit);
+      throw new RuntimeException(msg);
+    }
+  }
+  Writing.process(datum, out, max_depth, max_elements, max_chars);
+}
+
+/**
+ * Reads the text of one datum, as printed by {@link #toString(Object)}.
+ *
+ * @throws RuntimeException if the text is not the syntax of exactly one datum.
+ * @see DatumReader
+ */
+public static @NotNull Object read(@NotNull CharSequence text) {
+  DatumReader reader = new DatumReader(text);
+  Object      datum  = reader.next();
+  if (reader.hasNext()) {
+    String msg = String.format(Msg.UNEXPECTED_CHAR, "text", "the end of a datum");
+    throw new RuntimeException(msg);
+  }
+  return datum;
+}
 //endregion
 }
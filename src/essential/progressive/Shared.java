@@ -7,34 +7,49 @@
 
 package essential.progressive;
 
-import essential.utilities.RBTree;
+import essential.utilities.Continuation;
+import essential.utilities.IdentityMap;
 
 
 public class Shared {
 
-public static RBTree detect(Object datum) {
+/**
+ * Finds the objects which are reached more than once while traversing the datum, by identity.
+ * A frozen datum which is known to have none is not traversed.
+ *
+ * @param datum the datum to traverse.
+ * @return an identity map whose keys are the shared objects, in the order they were found.
+ */
+public static IdentityMap detect(Object datum) {
+  if (datum instanceof Few fw && fw.isPlain() ||
+      datum instanceof Lot lt && lt.isPlain()) {
+    return new IdentityMap();
+  }
   Shared inst = new Shared(datum);
-  inst.route();
+  try {
+    inst.route();
+  }
+  finally {
+    inst.cont.release();
+  }
   return inst.identical;
 }
 
-private final RBTree collector;
-private final RBTree identical;
-private       Few    cont;
-private       Object datum;
+private final IdentityMap  collector;
+private final IdentityMap  identical;
+private final Continuation cont;
+private       Object       datum;
 
 Shared(Object datum) {
-  collector = new RBTree((o1, o2) -> (int) o1 < (int) o2,
-                         (o1, o2) -> (int) o1 > (int) o2);
-  identical = new RBTree((o1, o2) -> (int) o1 < (int) o2,
-                         (o1, o2) -> (int) o1 > (int) o2);
-  cont = Few.of(Label.END_CONT);
+  collector = new IdentityMap();
+  identical = new IdentityMap();
+  cont = Continuation.acquire();
   this.datum = datum;
 }
 
 void route() {
   //noinspection DuplicatedCode
-  String next = Label.OF_DATUM;
+  int next = Label.OF_DATUM;
   while (true) {
     switch (next) {
       case Label.OF_DATUM -> next = ofDatum();
@@ -44,24 +59,32 @@ void route() {
   }
 }
 
-private String ofDatum() {
-  int     key     = System.identityHashCode(datum);
-  boolean success = collector.insert(key, false);
+private int ofDatum() {
+  boolean success = collector.insert(datum, false);
   if (success) {
     if (datum instanceof Few fw) {
       int length = fw.length();
       if (length == 0) {
         return Label.APPLY_CONT;
       }
-      cont = Few.of(Label.ITER_FEW, cont, length, 1, fw);
+      cont.push(Label.ITER_FEW, fw, length, 1);
       datum = fw.ref(0);
       return Label.OF_DATUM;
     }
+    else if (datum instanceof PersistentFew pf) {
+      int length = pf.length();
+      if (length == 0) {
+        return Label.APPLY_CONT;
+      }
+      cont.push(Label.ITER_VEC, pf, length, 1);
+      datum = pf.ref(0);
+      return Label.OF_DATUM;
+    }
     else if (datum instanceof Lot lt) {
       if (lt.isEmpty()) {
         return Label.APPLY_CONT;
       }
-      cont = Few.of(Label.ITER_LOT, cont, lt.cdr());
+      cont.push(Label.ITER_LOT, lt.cdr());
       datum = lt.car();
       return Label.OF_DATUM;
     }
@@ -70,47 +93,60 @@ private String ofDatum() {
     }
   }
 
-  identical.insert(key, datum);
+  identical.insert(datum, false);
   return Label.APPLY_CONT;
 }
 
-private String applyCont() {
-  String token = (String) cont.ref(0);
+private int applyCont() {
+  int token = cont.kind();
   switch (token) {
     case Label.END_CONT -> { return Label.EXIT; }
     //noinspection DuplicatedCode
     case Label.ITER_FEW -> {
-      int length = (int) cont.ref(2);
-      int index  = (int) cont.ref(3);
-      Few fw     = (Few) cont.ref(4);
+      Few fw     = (Few) cont.object(0);
+      int length = cont.number(0);
+      int index  = cont.number(1);
       if (index == length) {
-        cont = (Few) cont.ref(1);
+        cont.pop();
         return Label.APPLY_CONT;
       }
       else {
-        cont.set(3, index + 1);
+        cont.setNumber(1, index + 1);
         datum = fw.ref(index);
         return Label.OF_DATUM;
       }
     }
+    case Label.ITER_VEC -> {
+      PersistentFew pf     = (PersistentFew) cont.object(0);
+      int           length = cont.number(0);
+      int           index  = cont.number(1);
+      if (index == length) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setNumber(1, index + 1);
+        datum = pf.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
     case Label.ITER_LOT -> {
-      Lot     lt      = (Lot) cont.ref(2);
-      int     key     = System.identityHashCode(lt);
-      boolean success = collector.insert(key, false);
+      Lot     lt      = (Lot) cont.object(0);
+      boolean success = collector.insert(lt, false);
       if (success) {
         if (lt.isEmpty()) {
-          cont = (Few) cont.ref(1);
+          cont.pop();
           return Label.APPLY_CONT;
         }
         else {
-          cont.set(2, lt.cdr());
+          cont.setObject(0, lt.cdr());
           datum = lt.car();
           return Label.OF_DATUM;
         }
       }
       else {
-        identical.insert(key, lt);
-        cont = (Few) cont.ref(1);
+        identical.insert(lt, false);
+        cont.pop();
         return Label.APPLY_CONT;
       }
     }
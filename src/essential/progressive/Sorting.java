@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.functional.Predicate2;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * A stable merge sort over an array, with a predicate telling whether its first argument goes
+ * before the second. The ascending and strictly descending runs already in the array are found
+ * first, and short runs are extended by binary insertion, so sorted, reversed and all-equal data
+ * take one pass. Adjacent runs are then merged in rounds, through a scratch array as long as the
+ * shorter side. An array of at least {@link #PARALLEL_THRESHOLD} elements is split among the
+ * threads of the common pool, whose halves are sorted in parallel and merged.
+ * <p>
+ * A lot is sorted by relinking its cells, bottom up: each cell is merged into a row of sorted
+ * lists of 1, 2, 4, ... cells, like carrying in a binary counter, and the row is merged at the
+ * end. Only the row of at most 32 lists is allocated.
+ */
+class Sorting {
+
+static final int PARALLEL_THRESHOLD = 1 << 14;
+
+private static final int MIN_RUN = 32;
+
+static void sort(Predicate2 compare, Object[] arr) {
+  int length = arr.length;
+  if (length < 2) {
+    return;
+  }
+  if (length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+    parallelSort(compare, arr, ForkJoinPool.commonPool());
+  }
+  else {
+    sortRange(compare, arr, 0, length, new Object[length / 2], 0);
+  }
+}
+
+static void parallelSort(Predicate2 compare, Object[] arr, ForkJoinPool pool) {
+  Object[] tmp = new Object[arr.length];
+  pool.invoke(new SortTask(compare, arr, 0, arr.length, tmp));
+}
+
+/**
+ * Sorts the cells of an acyclic and mutable lot by relinking them, keeping the empty lot at the
+ * end.
+ *
+ * @return the first cell of the sorted lot.
+ */
+static Lot sortCells(Predicate2 compare, Lot lt) {
+  if (lt.isEmpty() || lt.next.isEmpty()) {
+    return lt;
+  }
+  Lot end = lt;
+  while (!end.isEmpty()) {
+    end = end.next;
+  }
+
+  Lot[] row  = new Lot[32];
+  int   used = 0;
+  Lot   xxx  = lt;
+  while (xxx != end) {
+    Lot carry = xxx;
+    xxx = xxx.next;
+    carry.next = end;
+    int i = 0;
+    while (i < used && row[i] != null) {
+      carry = mergeCells(compare, row[i], carry, end);
+      row[i] = null;
+      i += 1;
+    }
+    row[i] = carry;
+    if (i == used) {
+      used += 1;
+    }
+  }
+
+  Lot sorted = null;
+  for (int i = 0; i < used; i += 1) {
+    if (row[i] != null) {
+      sorted = sorted == null ? row[i] : mergeCells(compare, row[i], sorted, end);
+    }
+  }
+  return sorted;
+}
+
+/**
+ * Merges two sorted runs of cells ending at {@code end}, the cells of {@code left} coming first in
+ * the original order.
+ */
+private static Lot mergeCells(Predicate2 compare, Lot left, Lot right, Lot end) {
+  Lot head;
+  if (compare.apply(right.data, left.data)) {
+    head = right;
+    right = right.next;
+  }
+  else {
+    head = left;
+    left = left.next;
+  }
+  Lot last = head;
+  while (left != end && right != end) {
+    if (compare.apply(right.data, left.data)) {
+      last.next = right;
+      right = right.next;
+    }
+    else {
+      last.next = left;
+      left = left.next;
+    }
+    last = last.next;
+  }
+  last.next = left != end ? left : right;
+  return head;
+}
+
+@SuppressWarnings("serial")
+private static class SortTask extends RecursiveAction {
+
+  private final Predicate2 compare;
+  private final Object[]   arr;
+  private final int        start;
+  private final int        bound;
+  private final Object[]   tmp;
+
+  SortTask(Predicate2 compare, Object[] arr, int start, int bound, Object[] tmp) {
+    this.compare = compare;
+    this.arr = arr;
+    this.start = start;
+    this.bound = bound;
+    this.tmp = tmp;
+  }
+
+  @Override
+  protected void compute() {
+    if (bound - start < PARALLEL_THRESHOLD) {
+      sortRange(compare, arr, start, bound, tmp, start);
+    }
+    else {
+      int mid = (start + bound) >>> 1;
+      invokeAll(new SortTask(compare, arr, start, mid, tmp),
+                new SortTask(compare, arr, mid, bound, tmp));
+      merge(compare, arr, start, mid, bound, tmp, start);
+    }
+  }
+}
+
+/**
+ * Sorts {@code arr[start, bound)}, with {@code tmp} usable from {@code base} for half the length.
+ */
+private static void sortRange(Predicate2 compare, Object[] arr, int start, int bound,
+                              Object[] tmp, int base) {
+  int[] runs  = new int[(bound - start) / MIN_RUN + 2];
+  int   count = 1;
+  runs[0] = start;
+  int i = start;
+  while (i < bound) {
+    int end = runEnd(compare, arr, i, bound);
+    if (end - i < MIN_RUN) {
+      int forced = Math.min(i + MIN_RUN, bound);
+      insertionSort(compare, arr, i, end, forced);
+      end = forced;
+    }
+    runs[count] = end;
+    count += 1;
+    i = end;
+  }
+
+  while (count > 2) {
+    int w = 1;
+    int r = 2;
+    for (; r < count; r += 2) {
+      merge(compare, arr, runs[r - 2], runs[r - 1], runs[r], tmp, base);
+      runs[w] = runs[r];
+      w += 1;
+    }
+    if (r == count) {
+      runs[w] = runs[count - 1];
+      w += 1;
+    }
+    count = w;
+  }
+}
+
+/**
+ * @return the end of the run from {@code start}, which is reversed if strictly descending.
+ */
+private static int runEnd(Predicate2 compare, Object[] arr, int start, int bound) {
+  int i = start + 1;
+  if (i == bound) {
+    return i;
+  }
+  if (compare.apply(arr[i], arr[start])) {
+    i += 1;
+    while (i < bound && compare.apply(arr[i], arr[i - 1])) {
+      i += 1;
+    }
+    reverse(arr, start, i);
+  }
+  else {
+    i += 1;
+    while (i < bound && !compare.apply(arr[i], arr[i - 1])) {
+      i += 1;
+    }
+  }
+  return i;
+}
+
+private static void reverse(Object[] arr, int start, int bound) {
+  for (int i = start, j = bound - 1; i < j; i += 1, j -= 1) {
+    Object tmp = arr[i];
+    arr[i] = arr[j];
+    arr[j] = tmp;
+  }
+}
+
+/**
+ * Inserts {@code arr[sorted, bound)} into the sorted {@code arr[start, sorted)}.
+ */
+private static void insertionSort(Predicate2 compare, Object[] arr, int start, int sorted,
+                                  int bound) {
+  for (int i = sorted; i < bound; i += 1) {
+    Object key = arr[i];
+    int    p   = upperBound(compare, arr, key, start, i);
+    System.arraycopy(arr, p, arr, p + 1, i - p);
+    arr[p] = key;
+  }
+}
+
+/**
+ * @return the first index in {@code [start, bound)} whose element goes after the key.
+ */
+private static int upperBound(Predicate2 compare, Object[] arr, Object key, int start, int bound) {
+  while (start < bound) {
+    int mid = (start + bound) >>> 1;
+    if (compare.apply(key, arr[mid])) {
+      bound = mid;
+    }
+    else {
+      start = mid + 1;
+    }
+  }
+  return start;
+}
+
+/**
+ * @return the first index in {@code [start, bound)} whose element does not go before the key.
+ */
+private static int lowerBound(Predicate2 compare, Object[] arr, Object key, int start, int bound) {
+  while (start < bound) {
+    int mid = (start + bound) >>> 1;
+    if (compare.apply(arr[mid], key)) {
+      start = mid + 1;
+    }
+    else {
+      bound = mid;
+    }
+  }
+  return start;
+}
+
+/**
+ * Merges the sorted {@code arr[start, mid)} and {@code arr[mid, bound)}. The elements already in
+ * place at either end are skipped, and the shorter of the rest is moved to {@code tmp}.
+ */
+private static void merge(Predicate2 compare, Object[] arr, int start, int mid, int bound,
+                          Object[] tmp, int base) {
+  if (!compare.apply(arr[mid], arr[mid - 1])) {
+    return;
+  }
+  start = upperBound(compare, arr, arr[mid], start, mid);
+  bound = lowerBound(compare, arr, arr[mid - 1], mid, bound);
+  if (mid - start <= bound - mid) {
+    mergeLow(compare, arr, start, mid, bound, tmp, base);
+  }
+  else {
+    mergeHigh(compare, arr, start, mid, bound, tmp, base);
+  }
+}
+
+private static void mergeLow(Predicate2 compare, Object[] arr, int start, int mid, int bound,
+                             Object[] tmp, int base) {
+  int length = mid - start;
+  System.arraycopy(arr, start, tmp, base, length);
+  int    i     = base;
+  int    j     = mid;
+  int    k     = start;
+  int    end   = base + length;
+  Object left  = tmp[i];
+  Object right = arr[j];
+  while (true) {
+    if (compare.apply(right, left)) {
+      arr[k] = right;
+      k += 1;
+      j += 1;
+      if (j == bound) {
+        break;
+      }
+      right = arr[j];
+    }
+    else {
+      arr[k] = left;
+      k += 1;
+      i += 1;
+      if (i == end) {
+        break;
+      }
+      left = tmp[i];
+    }
+  }
+  System.arraycopy(tmp, i, arr, k, end - i);
+}
+
+private static void mergeHigh(Predicate2 compare, Object[] arr, int start, int mid, int bound,
+                              Object[] tmp, int base) {
+  int length = bound - mid;
+  System.arraycopy(arr, mid, tmp, base, length);
+  int    i     = mid - 1;
+  int    j     = base + length - 1;
+  int    k     = bound - 1;
+  Object left  = arr[i];
+  Object right = tmp[j];
+  while (true) {
+    if (compare.apply(right, left)) {
+      arr[k] = left;
+      k -= 1;
+      i -= 1;
+      if (i < start) {
+        break;
+      }
+      left = arr[i];
+    }
+    else {
+      arr[k] = right;
+      k -= 1;
+      j -= 1;
+      if (j < base) {
+        break;
+      }
+      right = tmp[j];
+    }
+  }
+  System.arraycopy(tmp, base, arr, start, j - base + 1);
+}
+}
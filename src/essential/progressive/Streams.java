@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import java.util.stream.Collector;
+
+
+/**
+ * Collectors building a lot or a few from a stream. The parts collected by parallel threads are
+ * joined in order: the builders of a lot are linked without copying, and the buffers of a few are
+ * copied once into the left one.
+ */
+public class Streams {
+
+public static Collector<Object, LotBuilder, Lot> toLot() {
+  return Collector.of(LotBuilder::new, LotBuilder::add, LotBuilder::addAll, LotBuilder::build);
+}
+
+public static Collector<Object, FewBuffer, Few> toFew() {
+  return Collector.of(FewBuffer::new, FewBuffer::add, FewBuffer::addAll, FewBuffer::toFew);
+}
+}
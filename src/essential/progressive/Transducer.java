@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.functional.Do1;
+import essential.functional.Do2;
+import essential.functional.Predicate1;
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * A chain of steps over the elements of a lot or a few, run in one pass into a sink. Each step
+ * passes elements on to the next one, so no list is built between the steps, and a step may stop
+ * the pass early. A lot is checked to be not circular once, before the pass.
+ * <pre>
+ *   Transducer.map(f).then(Transducer.filter(p)).then(Transducer.take(10)).intoLot(lt)
+ * </pre>
+ * A transducer can be run any number of times; the state of {@link #take} and {@link #dedupe} is
+ * made afresh for each run.
+ */
+public class Transducer {
+
+// Wraps the step receiving the output of this transducer into the step receiving its input.
+// A step returns false to stop the pass.
+@FunctionalInterface
+private interface Wrap {
+  Predicate1 apply(Predicate1 downstream);
+}
+
+private final Wrap wrap;
+
+private Transducer(Wrap wrap) {
+  this.wrap = wrap;
+}
+
+public static @NotNull Transducer map(@NotNull Do1 fn) {
+  return new Transducer(down -> datum -> down.apply(fn.apply(datum)));
+}
+
+public static @NotNull Transducer filter(@NotNull Predicate1 fn) {
+  return new Transducer(down -> datum -> !fn.apply(datum) || down.apply(datum));
+}
+
+/**
+ * Passes on the first {@code n} elements, then stops the pass.
+ */
+public static @NotNull Transducer take(int n) {
+  return new Transducer(down -> new Take(n, down));
+}
+
+/**
+ * Passes on the elements of each lot or few the function returns.
+ */
+public static @NotNull Transducer mapcat(@NotNull Do1 fn) {
+  return new Transducer(down -> datum -> feed(fn.apply(datum), down));
+}
+
+/**
+ * Drops each element equal, in the sense of {@link Pr#equal}, to the one before it.
+ */
+public static @NotNull Transducer dedupe() {
+  return new Transducer(Dedupe::new);
+}
+
+/**
+ * @return the transducer running this one, then the given one on its output.
+ */
+public @NotNull Transducer then(@NotNull Transducer next) {
+  return new Transducer(down -> wrap.apply(next.wrap.apply(down)));
+}
+
+private static class Take implements Predicate1 {
+
+  private final Predicate1 down;
+  private       int        left;
+
+  Take(int n, Predicate1 down) {
+    this.down = down;
+    left = n;
+  }
+
+  @Override
+  public boolean apply(Object datum) {
+    if (left <= 0) {
+      return false;
+    }
+    left -= 1;
+    return down.apply(datum) && left > 0;
+  }
+}
+
+private static class Dedupe implements Predicate1 {
+
+  private final Predicate1 down;
+  private       Object     last;
+
+  Dedupe(Predicate1 down) {
+    this.down = down;
+    last = null;
+  }
+
+  @Override
+  public boolean apply(Object datum) {
+    if (last != null && Pr.equal(last, datum)) {
+      return true;
+    }
+    last = datum;
+    return down.apply(datum);
+  }
+}
+
+private static class Fold implements Predicate1 {
+
+  private final Do2    fn;
+  private       Object acc;
+
+  Fold(Object initial, Do2 fn) {
+    this.fn = fn;
+    acc = initial;
+  }
+
+  @Override
+  public boolean apply(Object datum) {
+    acc = fn.apply(acc, datum);
+    return true;
+  }
+}
+
+/**
+ * Feeds the elements of a lot or a few to the step.
+ *
+ * @return false if the step stopped the pass.
+ */
+private static boolean feed(Object source, Predicate1 step) {
+  if (source instanceof Few fw) {
+    for (Object datum : fw.data) {
+      if (!step.apply(datum)) {
+        return false;
+      }
+    }
+    return true;
+  }
+  else if (source instanceof Lot lt) {
+    if (lt.isBreadthCircle()) {
+      String msg = String.format(Msg.CIRCULAR_BREADTH, lt);
+      throw new RuntimeException(msg);
+    }
+    while (!lt.isEmpty()) {
+      if (!step.apply(lt.data)) {
+        return false;
+      }
+      lt = lt.next;
+    }
+    return true;
+  }
+  else {
+    String msg = String.format(Msg.NOT_SEQUENCE, Pr.toString(source));
+    throw new RuntimeException(msg);
+  }
+}
+
+private void run(Object source, Predicate1 sink) {
+  feed(source, wrap.apply(sink));
+}
+
+/**
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
+public @NotNull Lot intoLot(@NotNull Lot source) {
+  LotBuilder builder = new LotBuilder();
+  run(source, datum -> {
+    builder.add(datum);
+    return true;
+  });
+  return builder.build();
+}
+
+public @NotNull Lot intoLot(@NotNull Few source) {
+  LotBuilder builder = new LotBuilder();
+  run(source, datum -> {
+    builder.add(datum);
+    return true;
+  });
+  return builder.build();
+}
+
+/**
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
+public @NotNull Few intoFew(@NotNull Lot source) {
+  FewBuffer buffer = new FewBuffer();
+  run(source, datum -> {
+    buffer.add(datum);
+    return true;
+  });
+  return buffer.toFew();
+}
+
+public @NotNull Few intoFew(@NotNull Few source) {
+  FewBuffer buffer = new FewBuffer();
+  run(source, datum -> {
+    buffer.add(datum);
+    return true;
+  });
+  return buffer.toFew();
+}
+
+/**
+ * Folds the output from the left, starting with {@code initial}.
+ *
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
+public Object reduce(@NotNull Lot source, Object initial, @NotNull Do2 fn) {
+  Fold fold = new Fold(initial, fn);
+  run(source, fold);
+  return fold.acc;
+}
+
+public Object reduce(@NotNull Few source, Object initial, @NotNull Do2 fn) {
+  Fold fold = new Fold(initial, fn);
+  run(source, fold);
+  return fold.acc;
+}
+}
@@ -0,0 +1,516 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.utilities.IdentityMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * A list whose cells are packed into chunks of up to 16 elements, for long lists which are mostly
+ * scanned. An unrolled lot is a position in a chunk, and {@link #cdr()} returns the next position,
+ * so it behaves like a lot: {@link #setCar} is seen through every position sharing the cell, and
+ * {@link #setCdr} splits the chunk after the cell, leaving the cells after it as they were for
+ * whoever holds them.
+ * <p>
+ * Unlike a lot, the positions are made on demand, so two of them for the same cell are not the
+ * same object.
+ */
+public class UnrolledLot {
+
+private static final int CHUNK = 16;
+
+private static class Chunk {
+
+  final Object[] items;
+        int      end;
+        Chunk    rest;          // the chunk holding the cells cut off from this one by setCdr
+        Chunk    next;          // the chunk of the cell after the last one, null for the empty end
+        int      next_index;
+
+  Chunk(Object[] items) {
+    this.items = items;
+    end = items.length;
+  }
+}
+
+private Chunk chunk;    // null for the empty list
+private int   index;
+
+private UnrolledLot(Chunk chunk, int index) {
+  this.chunk = chunk;
+  this.index = index;
+}
+
+/**
+ * Follows the chunks split since this position was made.
+ */
+private void settle() {
+  while (chunk != null && index >= chunk.end) {
+    index -= chunk.end;
+    chunk = chunk.rest;
+  }
+}
+
+/**
+ * Compares the elements in place, a cell at a time. Only circular lists are compared as lots.
+ */
+@Override
+public boolean equals(Object datum) {
+  if (!(datum instanceof UnrolledLot ul)) {
+    return false;
+  }
+  int n1 = measure();
+  int n2 = ul.measure();
+  if (n1 == -1 || n2 == -1) {
+    return n1 == n2 && Equality.process(toLot(), ul.toLot());
+  }
+  else if (n1 != n2) {
+    return false;
+  }
+  Chunk c1 = chunk;
+  int   i1 = index;
+  Chunk c2 = ul.chunk;
+  int   i2 = ul.index;
+  for (int k = 0; k < n1; k += 1) {
+    while (i1 >= c1.end) {
+      i1 -= c1.end;
+      c1 = c1.rest;
+    }
+    while (i2 >= c2.end) {
+      i2 -= c2.end;
+      c2 = c2.rest;
+    }
+    if (!Pr.equal(c1.items[i1], c2.items[i2])) {
+      return false;
+    }
+    if (i1 + 1 < c1.end) {
+      i1 += 1;
+    }
+    else {
+      i1 = c1.next_index;
+      c1 = c1.next;
+    }
+    if (i2 + 1 < c2.end) {
+      i2 += 1;
+    }
+    else {
+      i2 = c2.next_index;
+      c2 = c2.next;
+    }
+  }
+  return true;
+}
+
+/**
+ * The hash agrees with {@link #equals}, and covers the first elements to a bounded depth, as the
+ * hash of a lot does, so it ends on circular lists. It follows the content, so an unrolled lot must
+ * not be changed by {@link #setCar} or {@link #setCdr} while it is a key of a hash map or set.
+ */
+@Override
+public int hashCode() {
+  int   result = Mate.LOT_SEED;
+  Chunk c      = chunk;
+  int   i      = index;
+  for (int k = 0; k < Mate.LOT_HASH_WIDTH && c != null; k += 1) {
+    while (i >= c.end) {
+      i -= c.end;
+      c = c.rest;
+    }
+    result = Mate.fold(result, Mate.hash(c.items[i], 1));
+    if (i + 1 < c.end) {
+      i += 1;
+    }
+    else {
+      i = c.next_index;
+      c = c.next;
+    }
+  }
+  return result;
+}
+
+@Override
+public String toString() {
+  return String.format("«Unrolled-Lot %s»", toLot());
+}
+
+public boolean isEmpty() {
+  return chunk == null;
+}
+
+public int length() {
+  int n = measure();
+  if (n == -1) {
+    String msg = String.format(Msg.CIRCULAR_BREADTH, this);
+    throw new RuntimeException(msg);
+  }
+  else {
+    return n;
+  }
+}
+
+public boolean isBreadthCircle() {
+  return measure() == -1;
+}
+
+/**
+ * Counts the cells a chunk at a time, with Brent's algorithm over the runs of cells.
+ *
+ * @return the length, -1 if circular.
+ */
+private int measure() {
+  Chunk c        = chunk;
+  int   i        = index;
+  Chunk tortoise = null;
+  int   t_index  = 0;
+  int   power    = 1;
+  int   steps    = 0;
+  int   n        = 0;
+  while (c != null) {
+    while (i >= c.end) {
+      i -= c.end;
+      c = c.rest;
+    }
+    if (c == tortoise && i == t_index) {
+      return -1;
+    }
+    n += c.end - i;
+    steps += 1;
+    if (steps == power) {
+      tortoise = c;
+      t_index = i;
+      power <<= 1;
+      steps = 0;
+    }
+    i = c.next_index;
+    c = c.next;
+  }
+  return n;
+}
+
+public @NotNull Object car() {
+  settle();
+  if (chunk == null) {
+    throw new RuntimeException(Msg.LOT_EMPTY);
+  }
+  else {
+    return chunk.items[index];
+  }
+}
+
+public @NotNull UnrolledLot cdr() {
+  settle();
+  if (chunk == null) {
+    throw new RuntimeException(Msg.LOT_EMPTY);
+  }
+  else if (index + 1 < chunk.end) {
+    return new UnrolledLot(chunk, index + 1);
+  }
+  else {
+    return new UnrolledLot(chunk.next, chunk.next_index);
+  }
+}
+
+public void setCar(@NotNull Object datum) {
+  settle();
+  if (chunk == null) {
+    throw new RuntimeException(Msg.LOT_EMPTY);
+  }
+  else {
+    chunk.items[index] = datum;
+  }
+}
+
+public void setCdr(@NotNull UnrolledLot lt) {
+  settle();
+  lt.settle();
+  if (chunk == null) {
+    throw new RuntimeException(Msg.LOT_EMPTY);
+  }
+  if (index + 1 < chunk.end) {
+    split(chunk, index + 1);
+  }
+  chunk.next = lt.chunk;
+  chunk.next_index = lt.index;
+}
+
+private static void split(Chunk c, int at) {
+  Chunk r = new Chunk(Arrays.copyOfRange(c.items, at, c.end));
+  r.rest = c.rest;
+  r.next = c.next;
+  r.next_index = c.next_index;
+  Arrays.fill(c.items, at, c.end, null);
+  c.end = at;
+  c.rest = r;
+}
+
+public @NotNull Object ref(int index) {
+  Chunk c = chunk;
+  int   i = this.index;
+  int   k = index;
+  while (0 <= k && c != null) {
+    while (i >= c.end) {
+      i -= c.end;
+      c = c.rest;
+    }
+    int span = c.end - i;
+    if (k < span) {
+      return c.items[i + k];
+    }
+    k -= span;
+    i = c.next_index;
+    c = c.next;
+  }
+  String msg = String.format(Msg.INDEX_OUT, index, this);
+  throw new RuntimeException(msg);
+}
+
+public @NotNull UnrolledLot tail(int index) {
+  Chunk c = chunk;
+  int   i = this.index;
+  int   k = index;
+  while (0 < k && c != null) {
+    while (i >= c.end) {
+      i -= c.end;
+      c = c.rest;
+    }
+    int span = c.end - i;
+    if (k < span) {
+      return new UnrolledLot(c, i + k);
+    }
+    k -= span;
+    i = c.next_index;
+    c = c.next;
+  }
+  if (k == 0) {
+    return new UnrolledLot(c, i);
+  }
+  else {
+    String msg = String.format(Msg.INDEX_OUT, index, this);
+    throw new RuntimeException(msg);
+  }
+}
+
+/**
+ * Walks the chunks directly, so no position is made for the elements: this is the sequential scan
+ * the chunks are laid out for.
+ *
+ * @return a stream of the elements, unbounded if this is circular in breadth.
+ */
+public @NotNull Stream<Object> stream() {
+  return StreamSupport.stream(new Cursor(chunk, index), false);
+}
+
+/**
+ * @throws RuntimeException if this is circular in breadth.
+ */
+public @NotNull Few toFew() {
+  Object[] arr = new Object[length()];
+  Chunk    c   = chunk;
+  int      i   = index;
+  int      n   = 0;
+  while (c != null) {
+    while (i >= c.end) {
+      i -= c.end;
+      c = c.rest;
+    }
+    System.arraycopy(c.items, i, arr, n, c.end - i);
+    n += c.end - i;
+    i = c.next_index;
+    c = c.next;
+  }
+  return new Few(arr);
+}
+
+/**
+ * @return a lot of the same elements, circular if this is.
+ */
+public @NotNull Lot toLot() {
+  if (measure() == -1) {
+    return toCircularLot();
+  }
+  LotBuilder builder = new LotBuilder();
+  Chunk      c       = chunk;
+  int        i       = index;
+  while (c != null) {
+    while (i >= c.end) {
+      i -= c.end;
+      c = c.rest;
+    }
+    for (int j = i; j < c.end; j += 1) {
+      builder.add(c.items[j]);
+    }
+    i = c.next_index;
+    c = c.next;
+  }
+  return builder.build();
+}
+
+private Lot toCircularLot() {
+  IdentityMap rows = new IdentityMap();
+  Lot         head = null;
+  Lot         last = null;
+  Chunk       c    = chunk;
+  int         i    = index;
+  while (true) {
+    while (i >= c.end) {
+      i -= c.end;
+      c = c.rest;
+    }
+    int   key = rows.index(c);
+    Lot[] row;
+    if (key < 0) {
+      row = new Lot[c.end];
+      rows.insert(c, row);
+    }
+    else {
+      row = (Lot[]) rows.valueAt(key);
+    }
+    if (row[i] != null) {
+      last.next = row[i];
+      return head;
+    }
+    Lot cell = new Lot(c.items[i], null);
+    row[i] = cell;
+    if (last == null) {
+      head = cell;
+    }
+    else {
+      last.next = cell;
+    }
+    last = cell;
+    if (i + 1 < c.end) {
+      i += 1;
+    }
+    else {
+      i = c.next_index;
+      c = c.next;
+    }
+  }
+}
+
+public static @NotNull UnrolledLot of(@NotNull Object @NotNull ... args) {
+  return build(args);
+}
+
+public static @NotNull UnrolledLot from(@NotNull Few fw) {
+  return build(fw.data);
+}
+
+/**
+ * @throws RuntimeException if the lot is circular in breadth.
+ */
+public static @NotNull UnrolledLot from(@NotNull Lot lt) {
+  return build(lt.toFew().data);
+}
+
+private static UnrolledLot build(Object[] arr) {
+  int   length = arr.length;
+  Chunk first  = null;
+  Chunk last   = null;
+  for (int start = 0; start < length; start += CHUNK) {
+    Chunk c = new Chunk(Arrays.copyOfRange(arr, start, Math.min(start + CHUNK, length)));
+    if (last == null) {
+      first = c;
+    }
+    else {
+      last.next = c;
+    }
+    last = c;
+  }
+  return new UnrolledLot(first, 0);
+}
+
+/**
+ * Scans the chunks an element at a time, and splits by handing over the rest of the current chunk.
+ */
+private static class Cursor implements Spliterator<Object> {
+
+  private Chunk chunk;
+  private int   index;
+
+  Cursor(Chunk chunk, int index) {
+    this.chunk = chunk;
+    this.index = index;
+  }
+
+  private void settle() {
+    while (chunk != null && index >= chunk.end) {
+      index -= chunk.end;
+      chunk = chunk.rest;
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Object> action) {
+    settle();
+    if (chunk == null) {
+      return false;
+    }
+    Object datum = chunk.items[index];
+    if (index + 1 < chunk.end) {
+      index += 1;
+    }
+    else {
+      index = chunk.next_index;
+      chunk = chunk.next;
+    }
+    action.accept(datum);
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super Object> action) {
+    Chunk c = chunk;
+    int   i = index;
+    chunk = null;
+    while (c != null) {
+      while (i >= c.end) {
+        i -= c.end;
+        c = c.rest;
+      }
+      Object[] items = c.items;
+      for (int end = c.end; i < end; i += 1) {
+        action.accept(items[i]);
+      }
+      i = c.next_index;
+      c = c.next;
+    }
+  }
+
+  @Override
+  public Spliterator<Object> trySplit() {
+    settle();
+    if (chunk == null) {
+      return null;
+    }
+    Spliterator<Object> part = Spliterators.spliterator(chunk.items, index, chunk.end,
+                                                        ORDERED | NONNULL);
+    index = chunk.next_index;
+    chunk = chunk.next;
+    return part;
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+}
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.utilities.Continuation;
+import essential.utilities.IdentityMap;
+
+import java.io.IOException;
+
+
+/**
+ * Prints a datum to an {@link Appendable} as it is traversed, in two passes. The first finds the
+ * objects reached again, and the second prints, defining the label of each of them where it is
+ * first printed. Both passes walk the same part of the datum: a container deeper than the depth
+ * limit is printed as {@code ...}, the elements of a container after the element limit are printed
+ * as {@code ...}, and the traversal stops once the character limit is reached, ending the text with
+ * {@code ...}. Without limits, the first pass is {@link Shared#detect}. A datum without shared
+ * objects is printed without looking anything up, and a frozen plain one skips the first pass.
+ * <p>
+ * Unlike {@link essential.utilities.Encoding}, which cuts the shared objects out of its output in
+ * one pass, the printer keeps the passes apart: remembering every object as it is printed, and
+ * patching the labels in afterwards, was slower on large unshared data, whose identity map then
+ * falls out of the cache between the inserts.
+ * <p>
+ * The text is built in a {@link StringBuilder}: the one given, or a buffer flushed to the
+ * appendable every {@link #FLUSH} characters.
+ */
+class Writing {
+
+private static final int FLUSH = 1 << 13;
+private static final int AGAIN = -2;
+
+static void process(Object datum, Appendable out, int max_depth, int max_elements, int max_chars) {
+  IdentityMap shared;
+  if (max_depth == Integer.MAX_VALUE &&
+      max_elements == Integer.MAX_VALUE &&
+      max_chars == Integer.MAX_VALUE) {
+    shared = Shared.detect(datum);
+    for (int i = 0; i < shared.size(); i += 1) {
+      shared.setValueAt(i, -1);
+    }
+  }
+  else {
+    boolean plain = datum instanceof Few fw && fw.isPlain() ||
+                    datum instanceof Lot lt && lt.isPlain();
+    shared = new IdentityMap();
+    if (!plain) {
+      new Writing(datum, null, null, shared, max_depth, max_elements, max_chars).run();
+    }
+  }
+  StringBuilder builder = out instanceof StringBuilder sb ? sb : new StringBuilder();
+  Writing inst = new Writing(datum, out, builder, shared.isEmpty() ? null : shared,
+                             max_depth, max_elements, max_chars);
+  inst.flush();
+  inst.run();
+  if (builder != out) {
+    inst.flush();
+  }
+}
+
+private final Appendable    out;          // null in the first pass
+private final StringBuilder builder;      // null in the first pass
+private final int           start;        // where the text starts in the builder
+private       long          flushed;
+private       int           threshold;    // the builder length after which flush is due
+private final IdentityMap   seen;         // the objects reached in the first pass
+private final IdentityMap   shared;       // the objects reached again, with their labels or -1
+private       int           order;
+private final int           max_depth;
+private final int           max_elements;
+private final int           max_chars;
+private       int           depth;
+private       long          nodes;
+private final long          node_limit;   // each step prints a character, so the text ends first
+private       boolean       stopped;
+private final Continuation  cont;
+private       Object        datum;
+
+private Writing(Object datum, Appendable out, StringBuilder builder, IdentityMap shared,
+                int max_depth, int max_elements, int max_chars) {
+  this.out = out;
+  this.builder = builder;
+  start = builder == null ? 0 : builder.length();
+  flushed = 0;
+  threshold = 0;
+  seen = builder == null ? new IdentityMap() : null;
+  this.shared = shared;
+  order = 0;
+  this.max_depth = max_depth;
+  this.max_elements = max_elements;
+  this.max_chars = max_chars;
+  depth = 0;
+  nodes = 0;
+  node_limit = (long) max_chars + 1;
+  stopped = false;
+  cont = Continuation.acquire();
+  this.datum = datum;
+}
+
+private void run() {
+  try {
+    route();
+  }
+  finally {
+    cont.release();
+  }
+}
+
+private void route() {
+  //noinspection DuplicatedCode
+  int next = Label.OF_DATUM;
+  while (!stopped) {
+    switch (next) {
+      case Label.OF_DATUM -> next = ofDatum();
+      case Label.APPLY_CONT -> next = applyCont();
+      case Label.EXIT -> { return; }
+    }
+    if (builder != null && builder.length() > threshold && !stopped) {
+      checkLength();
+    }
+  }
+}
+
+/**
+ * Counts a step of the traversal. Both passes stop at the same step, unless the character limit
+ * stops the second pass first.
+ */
+private boolean step() {
+  nodes += 1;
+  if (nodes > node_limit) {
+    stopped = true;
+    if (builder != null) {
+      builder.append("...");
+    }
+    return false;
+  }
+  return true;
+}
+
+/**
+ * Cuts the text at the character limit, after the step which passed it.
+ */
+private void checkLength() {
+  long written = flushed + builder.length() - start;
+  if (written > max_chars) {
+    builder.setLength((int) (builder.length() - (written - max_chars)));
+    builder.append("...");
+    stopped = true;
+  }
+  else {
+    flush();
+  }
+}
+
+/**
+ * Hands the text over to the appendable, unless it is the builder, and sets the builder length
+ * after which the text is to be cut or handed over again.
+ */
+private void flush() {
+  if (builder != out) {
+    try {
+      out.append(builder);
+    }
+    catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    flushed += builder.length();
+    builder.setLength(0);
+  }
+  long limit = start + max_chars - flushed;
+  threshold = (int) Math.min(builder != out ? Math.min(limit, FLUSH) : limit, Integer.MAX_VALUE);
+}
+
+private int ofDatum() {
+  if (!step()) {
+    return Label.EXIT;
+  }
+  boolean cut   = depth >= max_depth && isOpen(datum);
+  int     entry = -1;
+  if (shared != null) {
+    entry = find(datum, !cut);
+    if (entry == AGAIN) {
+      return Label.APPLY_CONT;
+    }
+    else if (entry >= 0 && (int) shared.valueAt(entry) >= 0) {
+      builder.append('#').append((int) shared.valueAt(entry)).append('#');
+      return Label.APPLY_CONT;
+    }
+  }
+  if (cut) {
+    put("...");
+    return Label.APPLY_CONT;
+  }
+  if (entry >= 0) {
+    builder.append('#').append(define(entry)).append('=');
+  }
+
+  if (datum instanceof Few fw) {
+    int length = fw.length();
+    if (length == 0) {
+      put("#()");
+      return Label.APPLY_CONT;
+    }
+    else if (max_elements == 0) {
+      put("#(...)");
+      return Label.APPLY_CONT;
+    }
+    else {
+      put("#(");
+      push(Label.ITER_FEW, fw, length, 1);
+      datum = fw.ref(0);
+      return Label.OF_DATUM;
+    }
+  }
+  else if (datum instanceof PersistentFew pf) {
+    int length = pf.length();
+    if (length == 0) {
+      put("#()");
+      return Label.APPLY_CONT;
+    }
+    else if (max_elements == 0) {
+      put("#(...)");
+      return Label.APPLY_CONT;
+    }
+    else {
+      put("#(");
+      push(Label.ITER_VEC, pf, length, 1);
+      datum = pf.ref(0);
+      return Label.OF_DATUM;
+    }
+  }
+  else if (datum instanceof Lot lt) {
+    if (lt.isEmpty()) {
+      put("()");
+      return Label.APPLY_CONT;
+    }
+    else if (max_elements == 0) {
+      put("(...)");
+      return Label.APPLY_CONT;
+    }
+    else {
+      put('(');
+      push(Label.ITER_LOT, lt.cdr(), 1, 0);
+      datum = lt.car();
+      return Label.OF_DATUM;
+    }
+  }
+  else {
+    if (builder != null) {
+      Mate.appendAtom(builder, datum);
+    }
+    return Label.APPLY_CONT;
+  }
+}
+
+private int applyCont() {
+  int label = cont.kind();
+  switch (label) {
+    case Label.END_CONT -> { return Label.EXIT; }
+    case Label.ITER_FEW -> {
+      Few fw     = (Few) cont.object(0);
+      int length = cont.number(0);
+      int index  = cont.number(1);
+      if (index == length) {
+        put(')');
+        pop();
+        return Label.APPLY_CONT;
+      }
+      else if (index == max_elements) {
+        put(" ...)");
+        pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        put(' ');
+        cont.setNumber(1, index + 1);
+        datum = fw.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.ITER_VEC -> {
+      PersistentFew pf     = (PersistentFew) cont.object(0);
+      int           length = cont.number(0);
+      int           index  = cont.number(1);
+      if (index == length) {
+        put(')');
+        pop();
+        return Label.APPLY_CONT;
+      }
+      else if (index == max_elements) {
+        put(" ...)");
+        pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        put(' ');
+        cont.setNumber(1, index + 1);
+        datum = pf.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.ITER_LOT -> {
+      Lot lt     = (Lot) cont.object(0);
+      int count  = cont.number(0);
+      int opened = cont.number(1);      // the shared cdr cells printed as lists of their own
+      int entry  = shared == null ? -1 : find(lt, true);
+      if (entry == AGAIN) {
+        closeList(opened);
+        return Label.APPLY_CONT;
+      }
+      else if (entry >= 0 && (int) shared.valueAt(entry) >= 0) {
+        builder.append(" . #").append((int) shared.valueAt(entry)).append('#');
+        closeList(opened);
+        return Label.APPLY_CONT;
+      }
+      else if (lt.isEmpty()) {
+        if (entry >= 0) {
+          builder.append(" . #").append(define(entry)).append("=()");
+        }
+        closeList(opened);
+        return Label.APPLY_CONT;
+      }
+      else if (count == max_elements) {
+        put(" ...");
+        closeList(opened);
+        return Label.APPLY_CONT;
+      }
+      else if (!step()) {
+        return Label.EXIT;
+      }
+      else {
+        put(' ');
+        if (entry >= 0) {
+          builder.append(". #").append(define(entry)).append("=(");
+          cont.setNumber(1, opened + 1);
+        }
+        cont.setObject(0, lt.cdr());
+        cont.setNumber(0, count + 1);
+        datum = lt.car();
+        return Label.OF_DATUM;
+      }
+    }
+    default -> throw new RuntimeException("undefined continuation " + label);
+  }
+}
+
+private void push(int kind, Object container, int n0, int n1) {
+  cont.push(kind, container, n0, n1);
+  depth += 1;
+}
+
+private void pop() {
+  cont.pop();
+  depth -= 1;
+}
+
+private void closeList(int opened) {
+  if (builder != null) {
+    for (int i = 0; i <= opened; i += 1) {
+      builder.append(')');
+    }
+  }
+  pop();
+}
+
+private static boolean isOpen(Object datum) {
+  return datum instanceof Few fw && fw.length() != 0 ||
+         datum instanceof PersistentFew pf && pf.length() != 0 ||
+         datum instanceof Lot lt && !lt.isEmpty();
+}
+
+/**
+ * In the first pass, records an object, unless it is a container cut by the depth limit, whose
+ * elements are not printed, and marks it as shared if it has been reached before.
+ *
+ * @return in the first pass, {@link #AGAIN} if the object has been reached before, and -1
+ * otherwise; in the second pass, the index of the object among the shared ones, or -1.
+ */
+private int find(Object datum, boolean record) {
+  if (builder == null) {
+    if (record ? !seen.insert(datum, false) : seen.isPresent(datum)) {
+      shared.insert(datum, -1);
+      return AGAIN;
+    }
+    return -1;
+  }
+  else {
+    return shared.index(datum);
+  }
+}
+
+/**
+ * Defines the label of a shared object where it is first printed.
+ */
+private int define(int entry) {
+  shared.setValueAt(entry, order);
+  order += 1;
+  return order - 1;
+}
+
+private void put(char c) {
+  if (builder != null) {
+    builder.append(c);
+  }
+}
+
+private void put(String text) {
+  if (builder != null) {
+    builder.append(text);
+  }
+}
+}
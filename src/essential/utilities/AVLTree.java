@@ -14,6 +14,9 @@ import essential.progressive.Few;
 import essential.progressive.Lot;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 
 public class AVLTree {
 
@@ -64,6 +67,11 @@ public boolean equals(Object datum) {
   }
 }
 
+@Override
+public int hashCode() {
+  return root().hashCode();
+}
+
 @Override
 public String toString() {
   return String.format("«AVL-Tree %s»", AVLTreeMate.toString(root));
@@ -235,6 +243,17 @@ public Lot travel() {
   return AVLTreeMate.travel(root);
 }
 
+/**
+ * Streams the key-value pairs in the AVL tree, in ascending order of keys like {@link #travel()}.
+ * A parallel stream splits the tree by its subtrees. The stream starts with the exact size of the
+ * tree, counted by {@link #size()}.
+ *
+ * @return a stream of key-value pairs.
+ */
+public Stream<Object> stream() {
+  return StreamSupport.stream(new TreeSpliterator(root, size(), 4, 5), false);
+}
+
 /**
  * Filters the key-value pairs in the AVL tree with the given predicate.
  *
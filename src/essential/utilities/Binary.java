@@ -31,6 +31,7 @@ static final byte INTS     = (byte) 0x97;
 static final byte LONGS    = (byte) 0x98;
 static final byte FLOATS   = (byte) 0x99;
 static final byte DOUBLES  = (byte) 0x9A;
+static final byte BYTES    = (byte) 0x9B;
 
 public static final byte CHAR   = (byte) 0xA0;
 public static final byte STRING = (byte) 0xA1;
@@ -310,9 +311,23 @@ public static Object decode(byte @NotNull [] bin) {
   return inst.process();
 }
 
+/**
+ * Hashes a datum by its content, as it would be encoded, without encoding it. Two data which would
+ * have the same encoding have the same hash, cyclic data included.
+ *
+ * @return a 64-bit hash.
+ * @throws RuntimeException if the datum holds a type which cannot be encoded.
+ */
+public static long hash64(Object datum) {
+  Hashing inst = new Hashing(datum);
+  return inst.process();
+}
+
+/**
+ * @return the 64-bit hash of {@link #hash64} folded to 32 bits.
+ */
 public static int hashcode(Object datum) {
-  byte[] bin     = encode(datum);
-  byte[] bin_sum = Binary.extendTo64Bits(bin, 0, 4);
-  return (int) Binary.decodeI64(bin_sum);
+  long hash = hash64(datum);
+  return (int) (hash ^ (hash >>> 32));
 }
 }
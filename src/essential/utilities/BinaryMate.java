@@ -140,6 +140,15 @@ static byte @NotNull [] encodeDoubles(double @NotNull [] ds) {
   return bin;
 }
 
+static byte @NotNull [] encodeBytes(byte @NotNull [] bs) {
+  byte[] len = Binary.encodeVarI32(bs.length);
+  byte[] bin = new byte[1 + len.length + bs.length];
+  bin[0] = Binary.BYTES;
+  System.arraycopy(len, 0, bin, 1, len.length);
+  System.arraycopy(bs, 0, bin, 1 + len.length, bs.length);
+  return bin;
+}
+
 static byte @NotNull [] encodePureChar(int c) {
   if (c < 0x80) {
     return new byte[]{(byte) c};
@@ -221,6 +230,10 @@ static boolean @NotNull [] decodeBooleans(byte[] bin, int start, int len) {
   return bs;
 }
 
+static byte @NotNull [] decodeBytes(byte[] bin, int start, int len) {
+  return Arrays.copyOfRange(bin, start, start + len);
+}
+
 static short @NotNull [] decodeShorts(byte[] bin, int start, int len) {
   short[] ss = new short[len];
   for (int i = 0, j = start; i < len; i += 1, j += 2) {
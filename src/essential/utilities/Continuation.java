@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import java.util.Arrays;
+
+
+/**
+ * A stack of continuation frames for the trampolined traversals. A frame is an int kind, two
+ * object slots and three int slots, kept in parallel arrays, so pushing a frame allocates nothing
+ * once the stack has grown, and the int slots are not boxed.
+ * <p>
+ * The kinds are chosen by the traversal, except 0 which is the kind of the empty stack.
+ */
+public class Continuation {
+
+public static final int END_CONT = 0;
+
+private static final int MIN_CAPACITY = 16;
+private static final int MAX_KEPT     = 1 << 16;
+
+private static final ThreadLocal<Continuation> CACHE = ThreadLocal.withInitial(Continuation::new);
+
+/**
+ * Takes the stack of the current thread if it is not in use, or makes a new one for a nested
+ * traversal. The stack should be given back by {@link #release()}.
+ */
+public static Continuation acquire() {
+  Continuation cont = CACHE.get();
+  if (cont.busy) {
+    return new Continuation();
+  }
+  else {
+    cont.busy = true;
+    return cont;
+  }
+}
+
+private int[]    kinds;
+private Object[] objects;
+private int[]    numbers;
+private int      top;
+private int      reach;     // the highest frame used since the last release
+private boolean  busy;
+
+public Continuation() {
+  kinds = new int[MIN_CAPACITY];
+  objects = new Object[MIN_CAPACITY * 2];
+  numbers = new int[MIN_CAPACITY * 3];
+  top = 0;
+  reach = 0;
+  busy = false;
+}
+
+/**
+ * Empties the stack and drops the references in its frames. A stack taken by {@link #acquire()}
+ * becomes free for the next traversal on the thread.
+ */
+public void release() {
+  if (kinds.length > MAX_KEPT) {
+    kinds = new int[MIN_CAPACITY];
+    objects = new Object[MIN_CAPACITY * 2];
+    numbers = new int[MIN_CAPACITY * 3];
+  }
+  else {
+    Arrays.fill(objects, 0, reach * 2, null);
+  }
+  top = 0;
+  reach = 0;
+  busy = false;
+}
+
+public boolean isEmpty() {
+  return top == 0;
+}
+
+/**
+ * @return the kind of the top frame, {@link #END_CONT} if the stack is empty.
+ */
+public int kind() {
+  return top == 0 ? END_CONT : kinds[top - 1];
+}
+
+public void setKind(int kind) {
+  kinds[top - 1] = kind;
+}
+
+public Object object(int slot) {
+  return objects[(top - 1) * 2 + slot];
+}
+
+public void setObject(int slot, Object new_value) {
+  objects[(top - 1) * 2 + slot] = new_value;
+}
+
+public int number(int slot) {
+  return numbers[(top - 1) * 3 + slot];
+}
+
+public void setNumber(int slot, int new_value) {
+  numbers[(top - 1) * 3 + slot] = new_value;
+}
+
+public void push(int kind, Object o0) {
+  push(kind, o0, null, 0, 0, 0);
+}
+
+public void push(int kind, Object o0, Object o1) {
+  push(kind, o0, o1, 0, 0, 0);
+}
+
+public void push(int kind, Object o0, int n0) {
+  push(kind, o0, null, n0, 0, 0);
+}
+
+public void push(int kind, Object o0, int n0, int n1) {
+  push(kind, o0, null, n0, n1, 0);
+}
+
+public void push(int kind, Object o0, Object o1, int n0, int n1, int n2) {
+  if (top == kinds.length) {
+    int capacity = top * 2;
+    kinds = Arrays.copyOf(kinds, capacity);
+    objects = Arrays.copyOf(objects, capacity * 2);
+    numbers = Arrays.copyOf(numbers, capacity * 3);
+  }
+  kinds[top] = kind;
+  objects[top * 2] = o0;
+  objects[top * 2 + 1] = o1;
+  numbers[top * 3] = n0;
+  numbers[top * 3 + 1] = n1;
+  numbers[top * 3 + 2] = n2;
+  top += 1;
+  if (top > reach) {
+    reach = top;
+  }
+}
+
+public void pop() {
+  top -= 1;
+}
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.functional.Do1;
+import essential.progressive.Lot;
+import essential.progressive.Pr;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+import static essential.progressive.Pr.cons;
+
+
+/**
+ * An open-addressing hash map whose keys are compared by {@link Pr#eq} or by {@link Pr#equal}, and
+ * hashed by {@link Pr#eqHash} or {@link Pr#equalHash}, so the keys need no order. The entries are
+ * kept in dense arrays, in the order they were inserted, and can be visited by
+ * {@link #keyAt(int)} and {@link #valueAt(int)}. Deleting an entry moves the last entry into its
+ * index. The hash of each key is kept with it, so a structural key is hashed once, and is compared
+ * only with the keys of the same hash. A key compared by {@link Pr#equal} should not be mutated
+ * while it is in the map.
+ */
+public class DatumMap {
+
+private static final int MIN_CAPACITY = 16;
+
+private final boolean  structural;    // compares by Pr.equal, otherwise by Pr.eq
+private       Object[] keys;
+private       Object[] values;
+private       int[]    hashes;
+private       int[]    slots;         // index + 1 of the entry, 0 for a vacant slot
+private       int      mask;
+private       int      size;
+
+/**
+ * @return an empty map comparing its keys by {@link Pr#eq}.
+ */
+public static @NotNull DatumMap eq() {
+  return new DatumMap(false, MIN_CAPACITY);
+}
+
+/**
+ * @param capacity the expected number of entries.
+ * @return an empty map comparing its keys by {@link Pr#eq}.
+ */
+public static @NotNull DatumMap eq(int capacity) {
+  return new DatumMap(false, capacity);
+}
+
+/**
+ * @return an empty map comparing its keys by {@link Pr#equal}.
+ */
+public static @NotNull DatumMap equal() {
+  return new DatumMap(true, MIN_CAPACITY);
+}
+
+/**
+ * @param capacity the expected number of entries.
+ * @return an empty map comparing its keys by {@link Pr#equal}.
+ */
+public static @NotNull DatumMap equal(int capacity) {
+  return new DatumMap(true, capacity);
+}
+
+private DatumMap(boolean structural, int capacity) {
+  if (capacity < 0) {
+    String msg = String.format(Msg.INVALID_CAPACITY, capacity);
+    throw new RuntimeException(msg);
+  }
+  this.structural = structural;
+  int entries = Math.max(MIN_CAPACITY, capacity);
+  keys = new Object[entries];
+  values = new Object[entries];
+  hashes = new int[entries];
+  slots = new int[tableSize(entries)];
+  mask = slots.length - 1;
+  size = 0;
+}
+
+private static int tableSize(int entries) {
+  int n = Integer.highestOneBit(entries - 1) << 2;
+  return Math.max(n, MIN_CAPACITY * 2);
+}
+
+private int hash(Object key) {
+  int h = (structural ? Pr.equalHash(key) : Pr.eqHash(key)) * 0x9E3779B9;
+  return h ^ (h >>> 16);
+}
+
+private boolean isSame(Object key1, Object key2) {
+  return structural ? Pr.equal(key1, key2) : Pr.eq(key1, key2);
+}
+
+@Override
+public String toString() {
+  return String.format("«Datum-Map %s»", travel());
+}
+
+/**
+ * @return true if the keys are compared by {@link Pr#equal}, false if by {@link Pr#eq}.
+ */
+public boolean isStructural() {
+  return structural;
+}
+
+public boolean isEmpty() {
+  return size == 0;
+}
+
+public int size() {
+  return size;
+}
+
+/**
+ * The index of a key.
+ *
+ * @param key the key to look up.
+ * @return the index of the key, -1 if the key is not present.
+ */
+public int index(@NotNull Object key) {
+  int slot = slotOf(key, hash(key));
+  return slot < 0 ? -1 : slots[slot] - 1;
+}
+
+/**
+ * @return the slot of the key, -1 if the key is not present.
+ */
+private int slotOf(Object key, int hash) {
+  int i = hash & mask;
+  while (true) {
+    int slot = slots[i];
+    if (slot == 0) {
+      return -1;
+    }
+    else if (hashes[slot - 1] == hash && isSame(keys[slot - 1], key)) {
+      return i;
+    }
+    i = (i + 1) & mask;
+  }
+}
+
+public boolean isPresent(@NotNull Object key) {
+  return index(key) >= 0;
+}
+
+/**
+ * Inserts a key-value pair. If the key is already present, the insertion fails and returns false.
+ * A successful insertion gives the key the index {@code size() - 1}.
+ *
+ * @param key   the key to insert.
+ * @param value the value to insert.
+ * @return {@code true} if inserting succeeded, {@code false} otherwise.
+ */
+public boolean insert(@NotNull Object key, Object value) {
+  int hash = hash(key);
+  int i    = hash & mask;
+  while (true) {
+    int slot = slots[i];
+    if (slot == 0) {
+      break;
+    }
+    else if (hashes[slot - 1] == hash && isSame(keys[slot - 1], key)) {
+      return false;
+    }
+    i = (i + 1) & mask;
+  }
+
+  if (size == keys.length) {
+    grow();
+    i = hash & mask;
+    while (slots[i] != 0) {
+      i = (i + 1) & mask;
+    }
+  }
+  keys[size] = key;
+  values[size] = value;
+  hashes[size] = hash;
+  size += 1;
+  slots[i] = size;
+  return true;
+}
+
+private void grow() {
+  int entries = keys.length * 2;
+  keys = Arrays.copyOf(keys, entries);
+  values = Arrays.copyOf(values, entries);
+  hashes = Arrays.copyOf(hashes, entries);
+  slots = new int[tableSize(entries)];
+  mask = slots.length - 1;
+  for (int k = 0; k < size; k += 1) {
+    int i = hashes[k] & mask;
+    while (slots[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    slots[i] = k + 1;
+  }
+}
+
+/**
+ * Deletes the entry of a key. The last entry is moved to the index of the deleted one.
+ *
+ * @return {@code true} if the key was present, {@code false} otherwise.
+ */
+public boolean delete(@NotNull Object key) {
+  int i = slotOf(key, hash(key));
+  if (i < 0) {
+    return false;
+  }
+  int index = slots[i] - 1;
+  vacate(i);
+
+  int last = size - 1;
+  if (index != last) {
+    int j = hashes[last] & mask;
+    while (slots[j] != last + 1) {
+      j = (j + 1) & mask;
+    }
+    slots[j] = index + 1;
+    keys[index] = keys[last];
+    values[index] = values[last];
+    hashes[index] = hashes[last];
+  }
+  keys[last] = null;
+  values[last] = null;
+  size = last;
+  return true;
+}
+
+/**
+ * Empties a slot, shifting back the following slots of the probe sequence whose home slot is not
+ * between the empty slot and them, so that no lookup stops early.
+ */
+private void vacate(int i) {
+  int j = i;
+  while (true) {
+    j = (j + 1) & mask;
+    int slot = slots[j];
+    if (slot == 0) {
+      break;
+    }
+    int home = hashes[slot - 1] & mask;
+    if (((j - home) & mask) >= ((j - i) & mask)) {
+      slots[i] = slot;
+      i = j;
+    }
+  }
+  slots[i] = 0;
+}
+
+/**
+ * Retrieves the value associated with the specified key.
+ *
+ * @throws RuntimeException if the key is not present.
+ */
+public Object ref(@NotNull Object key) {
+  int index = index(key);
+  if (index < 0) {
+    String msg = String.format(Msg.NOT_PRESENT, key, this);
+    throw new RuntimeException(msg);
+  }
+  else {
+    return values[index];
+  }
+}
+
+/**
+ * Sets the value associated with the given key.
+ *
+ * @throws RuntimeException if the key is not present.
+ */
+public void set(@NotNull Object key, Object new_value) {
+  int index = index(key);
+  if (index < 0) {
+    String msg = String.format(Msg.NOT_PRESENT, key, this);
+    throw new RuntimeException(msg);
+  }
+  else {
+    values[index] = new_value;
+  }
+}
+
+public Object keyAt(int index) {
+  checkIndex(index);
+  return keys[index];
+}
+
+public Object valueAt(int index) {
+  checkIndex(index);
+  return values[index];
+}
+
+public void setValueAt(int index, Object new_value) {
+  checkIndex(index);
+  values[index] = new_value;
+}
+
+private void checkIndex(int index) {
+  if (index < 0 || size <= index) {
+    String msg = String.format(Msg.INDEX_OUT, index, size);
+    throw new RuntimeException(msg);
+  }
+}
+
+/**
+ * Removes all entries, keeping the allocated capacity.
+ */
+public void clear() {
+  Arrays.fill(keys, 0, size, null);
+  Arrays.fill(values, 0, size, null);
+  Arrays.fill(slots, 0);
+  size = 0;
+}
+
+/**
+ * Lists the key-value pairs in the order of their indexes.
+ *
+ * @return a list of key-value pairs, each of the form {@code (key value)}.
+ */
+public @NotNull Lot travel() {
+  Lot col = Lot.of();
+  for (int i = size - 1; 0 <= i; i -= 1) {
+    col = cons(Lot.of(keys[i], values[i]), col);
+  }
+  return col;
+}
+
+/**
+ * Makes a map of the key-value pairs listed by {@link #travel()}. A key listed again keeps its
+ * first value.
+ *
+ * @param structural true to compare the keys by {@link Pr#equal}, false by {@link Pr#eq}.
+ * @param pairs      a list of pairs, each of the form {@code (key value)}.
+ * @return a new map.
+ */
+public static @NotNull DatumMap of(boolean structural, @NotNull Lot pairs) {
+  DatumMap map = new DatumMap(structural, pairs.length());
+  for (Lot xxx = pairs; !xxx.isEmpty(); xxx = xxx.cdr()) {
+    Lot pair = (Lot) xxx.car();
+    map.insert(pair.car(), pair.cdr().car());
+  }
+  return map;
+}
+
+/**
+ * Maps the values with the given procedure, keeping the keys and their indexes.
+ *
+ * @param fn the procedure to modify value.
+ * @return a mapped map.
+ */
+public @NotNull DatumMap map(Do1 fn) {
+  DatumMap new_map = new DatumMap(structural, keys.length);
+  System.arraycopy(keys, 0, new_map.keys, 0, size);
+  System.arraycopy(hashes, 0, new_map.hashes, 0, size);
+  System.arraycopy(slots, 0, new_map.slots, 0, slots.length);
+  for (int i = 0; i < size; i += 1) {
+    new_map.values[i] = fn.apply(values[i]);
+  }
+  new_map.size = size;
+  return new_map;
+}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.progressive.Lot;
+import essential.progressive.Pr;
+import org.jetbrains.annotations.NotNull;
+
+import static essential.progressive.Pr.cons;
+
+
+/**
+ * A set of data compared by {@link Pr#eq} or by {@link Pr#equal}, kept as the keys of a
+ * {@link DatumMap}. The elements have indexes in the order they were inserted, and deleting an
+ * element moves the last element into its index.
+ */
+public class DatumSet {
+
+private final DatumMap map;
+
+/**
+ * @return an empty set comparing its elements by {@link Pr#eq}.
+ */
+public static @NotNull DatumSet eq() {
+  return new DatumSet(DatumMap.eq());
+}
+
+/**
+ * @return an empty set comparing its elements by {@link Pr#equal}.
+ */
+public static @NotNull DatumSet equal() {
+  return new DatumSet(DatumMap.equal());
+}
+
+/**
+ * Makes a set of the elements of a list. An element listed again is kept once.
+ *
+ * @param structural true to compare the elements by {@link Pr#equal}, false by {@link Pr#eq}.
+ * @return a new set.
+ */
+public static @NotNull DatumSet of(boolean structural, @NotNull Lot lt) {
+  int      length = lt.length();
+  DatumSet set    = new DatumSet(structural ? DatumMap.equal(length) : DatumMap.eq(length));
+  for (Lot xxx = lt; !xxx.isEmpty(); xxx = xxx.cdr()) {
+    set.insert(xxx.car());
+  }
+  return set;
+}
+
+private DatumSet(DatumMap map) {
+  this.map = map;
+}
+
+@Override
+public String toString() {
+  return String.format("«Datum-Set %s»", travel());
+}
+
+/**
+ * @return true if the elements are compared by {@link Pr#equal}, false if by {@link Pr#eq}.
+ */
+public boolean isStructural() {
+  return map.isStructural();
+}
+
+public boolean isEmpty() {
+  return map.isEmpty();
+}
+
+public int size() {
+  return map.size();
+}
+
+/**
+ * @return the index of the element, -1 if the element is not present.
+ */
+public int index(@NotNull Object datum) {
+  return map.index(datum);
+}
+
+public boolean isPresent(@NotNull Object datum) {
+  return map.isPresent(datum);
+}
+
+/**
+ * Inserts an element, which is given the index {@code size() - 1}.
+ *
+ * @return {@code true} if the element was not present, {@code false} otherwise.
+ */
+public boolean insert(@NotNull Object datum) {
+  return map.insert(datum, null);
+}
+
+/**
+ * @return {@code true} if the element was present, {@code false} otherwise.
+ */
+public boolean delete(@NotNull Object datum) {
+  return map.delete(datum);
+}
+
+public Object ref(int index) {
+  return map.keyAt(index);
+}
+
+/**
+ * Removes all elements, keeping the allocated capacity.
+ */
+public void clear() {
+  map.clear();
+}
+
+/**
+ * Lists the elements in the order of their indexes.
+ */
+public @NotNull Lot travel() {
+  Lot col = Lot.of();
+  for (int i = map.size() - 1; 0 <= i; i -= 1) {
+    col = cons(map.keyAt(i), col);
+  }
+  return col;
+}
+}
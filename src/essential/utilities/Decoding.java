@@ -34,21 +34,30 @@ private static @NotNull String hexOfByte(byte b) {
   return new String(new char[]{HEX_STR[(b >> 4) & 0xF], HEX_STR[b & 0xF]});
 }
 
-private final byte[] bin;
-private       int    index;
-private       Few    shared;
-private       Few    stack;
-private       Few    cont;
-private       Object r0;
+private final byte[]       bin;
+private       int          index;
+private       Few          shared;
+private final Continuation stack;     // the references to set when the shared table is complete
+private final Continuation cont;
+private       Object       r0;
 
 Decoding(byte[] bin, int index) {
   this.bin = bin;
   this.index = index;
-  stack = Few.of(Label.END_CONT);
-  cont = Few.of(Label.END_CONT);
+  stack = new Continuation();
+  cont = Continuation.acquire();
 }
 
 Object process() {
+  try {
+    return decode();
+  }
+  finally {
+    cont.release();
+  }
+}
+
+private Object decode() {
   index += 1;
   int sz     = Binary.sizeofVarI32(bin, index);
   int length = Binary.decodeVarI32(bin, index, index + sz);
@@ -59,7 +68,7 @@ Object process() {
     for (int i = 0; i < length; i += 1) {
       shared.set(i, new Nothing(i));
     }
-    cont = Few.of(Label.ITER_FEW, cont, length, 0, shared);
+    cont.push(Label.ITER_FEW, shared, length, 0);
     route();
     link();
   }
@@ -70,33 +79,33 @@ Object process() {
 
 private void link() {
   while (true) {
-    switch ((String) stack.ref(0)) {
+    switch (stack.kind()) {
       case Label.END_CONT -> { return; }
       case Label.SET_FEW -> {
-        Few fw = (Few) stack.ref(2);
-        int i  = (int) stack.ref(3);
-        int j  = (int) stack.ref(4);
+        Few fw = (Few) stack.object(0);
+        int i  = stack.number(0);
+        int j  = stack.number(1);
         fw.set(i, shared.ref(j));
-        stack = (Few) stack.ref(1);
+        stack.pop();
       }
       case Label.SET_CAR -> {
-        Lot lt = (Lot) stack.ref(2);
-        int j  = (int) stack.ref(3);
+        Lot lt = (Lot) stack.object(0);
+        int j  = stack.number(0);
         setCar(lt, shared.ref(j));
-        stack = (Few) stack.ref(1);
+        stack.pop();
       }
       case Label.SET_CDR -> {
-        Lot lt = (Lot) stack.ref(2);
-        int j  = (int) stack.ref(3);
+        Lot lt = (Lot) stack.object(0);
+        int j  = stack.number(0);
         setCdr(lt, (Lot) shared.ref(j));
-        stack = (Few) stack.ref(1);
+        stack.pop();
       }
     }
   }
 }
 
 private void route() {
-  String next = Label.OF_BYTE;
+  int next = Label.OF_BYTE;
   while (true) {
     switch (next) {
       case Label.OF_BYTE -> next = ofByte();
@@ -106,7 +115,7 @@ private void route() {
   }
 }
 
-private String ofByte() {
+private int ofByte() {
   byte label = bin[index];
   index += 1;
   switch (label) {
@@ -204,6 +213,14 @@ private String ofByte() {
       r0 = BinaryMate.decodeDoubles(bin, start, length);
       return Label.APPLY_CONT;
     }
+    case Binary.BYTES -> {
+      int sz     = Binary.sizeofVarI32(bin, index);
+      int length = Binary.decodeVarI32(bin, index, index + sz);
+      int start  = index + sz;
+      index = start + length;
+      r0 = BinaryMate.decodeBytes(bin, start, length);
+      return Label.APPLY_CONT;
+    }
     case Binary.CHAR -> {
       Few pack = Binary.decodeChar(bin, index);
       index = (int) pack.ref(0);
@@ -245,7 +262,7 @@ private String ofByte() {
         return Label.APPLY_CONT;
       }
       r0 = Few.make(length, new Nothing(-1));
-      cont = Few.of(Label.ITER_FEW, cont, length, 0, r0);
+      cont.push(Label.ITER_FEW, r0, length, 0);
       return Label.OF_BYTE;
     }
     case Binary.LOT_BEGIN -> {
@@ -255,16 +272,16 @@ private String ofByte() {
         return Label.APPLY_CONT;
       }
 
-      cont = Few.of(Label.ITER_LOT, cont, Lot.of());
+      cont.push(Label.ITER_LOT, Lot.of());
       return Label.OF_BYTE;
     }
     case Binary.LOT_END -> {
-      Lot lll = (Lot) cont.ref(2);
+      Lot lll = (Lot) cont.object(0);
       Lot xxx = Lot.of();
       return reverseLot(lll, xxx);
     }
     case Binary.NEXT_LOT -> {
-      cont.set(0, Label.NEXT_LOT);
+      cont.setKind(Label.NEXT_LOT);
       return Label.OF_BYTE;
     }
     default -> {
@@ -274,45 +291,45 @@ private String ofByte() {
   }
 }
 
-private String applyCont() {
-  String label = (String) cont.ref(0);
+private int applyCont() {
+  int label = cont.kind();
 
   switch (label) {
     case Label.END_CONT -> { return Label.EXIT; }
     case Label.ITER_FEW -> {
-      int length = (int) cont.ref(2);
-      int idx    = (int) cont.ref(3);
-      Few fw     = (Few) cont.ref(4);
+      Few fw     = (Few) cont.object(0);
+      int length = cont.number(0);
+      int idx    = cont.number(1);
       fw.set(idx, r0);
 
       if (r0 instanceof Nothing(int index1)) {
-        stack = Few.of(Label.SET_FEW, stack, fw, idx, index1);
+        stack.push(Label.SET_FEW, fw, idx, index1);
       }
 
       if (idx + 1 == length) {
         r0 = fw;
-        cont = (Few) cont.ref(1);
+        cont.pop();
         return Label.APPLY_CONT;
       }
       else {
-        cont.set(3, idx + 1);
+        cont.setNumber(1, idx + 1);
         return Label.OF_BYTE;
       }
     }
     case Label.ITER_LOT -> {
-      Lot lt = (Lot) cont.ref(2);
-      cont.set(2, cons(r0, lt));
+      Lot lt = (Lot) cont.object(0);
+      cont.setObject(0, cons(r0, lt));
       return Label.OF_BYTE;
     }
     case Label.NEXT_LOT -> {
-      Lot lll = (Lot) cont.ref(2);
+      Lot lll = (Lot) cont.object(0);
       Lot xxx = Lot.of(lll.car());
       if (lll.car() instanceof Nothing(int index1)) {
-        stack = Few.of(Label.SET_CAR, stack, xxx, index1);
+        stack.push(Label.SET_CAR, xxx, index1);
       }
 
       if (r0 instanceof Nothing(int index1)) {
-        stack = Few.of(Label.SET_CDR, stack, xxx, index1);
+        stack.push(Label.SET_CDR, xxx, index1);
       }
       else {
         setCdr(xxx, (Lot) r0);
@@ -324,17 +341,17 @@ private String applyCont() {
   }
 }
 
-private String reverseLot(@NotNull Lot lll, Lot xxx) {
+private int reverseLot(@NotNull Lot lll, Lot xxx) {
   while (!lll.isEmpty()) {
     xxx = cons(lll.car(), xxx);
     if (lll.car() instanceof Nothing(int index1)) {
-      stack = Few.of(Label.SET_CAR, stack, xxx, index1);
+      stack.push(Label.SET_CAR, xxx, index1);
     }
     lll = lll.cdr();
   }
 
   r0 = xxx;
-  cont = (Few) cont.ref(1);
+  cont.pop();
   return Label.APPLY_CONT;
 }
 }
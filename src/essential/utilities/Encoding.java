@@ -9,154 +9,206 @@ package essential.utilities;
 
 import essential.datetime.Date;
 import essential.datetime.Time;
+import essential.progressive.ByteFew;
+import essential.progressive.DoubleFew;
 import essential.progressive.Few;
+import essential.progressive.IntFew;
 import essential.progressive.Lot;
-import essential.progressive.Shared;
+import essential.progressive.LongFew;
+import essential.progressive.PersistentFew;
 import org.jetbrains.annotations.NotNull;
 
-import static essential.progressive.Pr.cons;
+import java.util.Arrays;
 
 
+/**
+ * Encodes a datum in one traversal. Every object is encoded in place when it is first reached,
+ * and its byte range is remembered. When an object is reached again, a placeholder reference is
+ * written. If anything is shared, the shared objects are cut out of the encoded bytes into the
+ * shared table at the end, and the references are given their indexes. A datum without sharing is
+ * encoded as is.
+ */
 class Encoding {
 
-private final RBTree shared_index;
-private final Few    shared;
-private       Few    cont;
-private       Object datum;
-private       Lot    col;
+private static final byte AS_DATUM = 0;
+private static final byte AS_CDR   = 1;
+
+private final IdentityMap  seen;
+private       int[]        starts;
+private       int[]        ends;       // the end of each seen object, or -(list + 1) until its list is closed
+private       byte[]       kinds;
+private       boolean[]    shared;
+private       int          shared_count;
+private       int[]        list_ends;
+private       int          lists;
+private       int[]        refs;       // triples of the position of a reference, its target and whether it is a cdr
+private       int          ref_count;
+private final Continuation cont;
+private       Object       datum;
+private       byte[]       bin;
+private       int          size;
 
 Encoding(Object datum) {
-  shared_index = Shared.detect(datum);
-  shared = shared_index.travel()
-                       .map(o -> ((Lot) o).ref(1))
-                       .toFew();
-  Lot keys = shared_index.travel()
-                         .map(o -> ((Lot) o).ref(0));
-  int index = 0;
-  while (!keys.isEmpty()) {
-    shared_index.set(keys.car(), index);
-    index += 1;
-    keys = keys.cdr();
-  }
-
-  cont = Few.of(Label.END_CONT);
+  seen = new IdentityMap();
+  starts = new int[16];
+  ends = new int[16];
+  kinds = new byte[16];
+  shared = new boolean[16];
+  shared_count = 0;
+  list_ends = new int[16];
+  lists = 0;
+  refs = new int[24];
+  ref_count = 0;
+  cont = Continuation.acquire();
   this.datum = datum;
-  col = Lot.of();
+  bin = new byte[64];
+  size = 0;
 }
 
 byte @NotNull [] process() {
-  Object datum_bk = datum;
-  int    length   = shared.length();
-  cont = Few.of(Label.ITER_SHARED, cont, length, 0);
-  col = cons(new byte[]{Binary.FEW}, col);
-  col = cons(Binary.encodeVarI32(length), col);
-  route(Label.APPLY_CONT);
-
-  datum = datum_bk;
-  route(Label.OF_DATUM);
+  put(Binary.FEW);
+  put(Binary.encodeVarI32(0));
+  try {
+    route();
+  }
+  finally {
+    cont.release();
+  }
 
-  col = col.reverse();
-  return Binary.connectBytes(col);
+  if (shared_count == 0) {
+    return Arrays.copyOf(bin, size);
+  }
+  else {
+    return patch();
+  }
 }
 
-private void route(@NotNull String next) {
+private void route() {
+  int next = Label.OF_DATUM;
   while (true) {
     switch (next) {
       case Label.OF_DATUM -> next = ofDatum();
-      case Label.OF_SHARED -> next = ofShared();
       case Label.APPLY_CONT -> next = applyCont();
       case Label.EXIT -> { return; }
     }
   }
 }
 
-private String ofShared() {
+private int ofDatum() {
+  if (!seen.insert(datum, false)) {
+    int index = seen.index(datum);
+    share(index);
+    refer(index, false);
+    put(Binary.SHARE_INDEX);
+    return Label.APPLY_CONT;
+  }
+  int index = remember(AS_DATUM);
+
   if (datum instanceof Few fw) {
     int length = fw.length();
-    cont = Few.of(Label.ITER_FEW, cont, length, 0, fw);
-    col = cons(new byte[]{Binary.FEW}, col);
-    col = cons(Binary.encodeVarI32(length), col);
-    return Label.APPLY_CONT;
+    put(Binary.FEW);
+    put(Binary.encodeVarI32(length));
+    if (length == 0) {
+      ends[index] = size;
+      return Label.APPLY_CONT;
+    }
+    cont.push(Label.ITER_FEW, fw, null, length, 1, index);
+    datum = fw.ref(0);
+    return Label.OF_DATUM;
+  }
+  else if (datum instanceof PersistentFew pf) {
+    int length = pf.length();
+    put(Binary.FEW);
+    put(Binary.encodeVarI32(length));
+    if (length == 0) {
+      ends[index] = size;
+      return Label.APPLY_CONT;
+    }
+    cont.push(Label.ITER_VEC, pf, null, length, 1, index);
+    datum = pf.ref(0);
+    return Label.OF_DATUM;
   }
   else if (datum instanceof Lot lt) {
     if (lt.isEmpty()) {
-      byte[] bin = new byte[]{Binary.LOT_BEGIN, Binary.LOT_END};
-      col = cons(bin, col);
+      put(Binary.LOT_BEGIN);
+      put(Binary.LOT_END);
+      ends[index] = size;
       return Label.APPLY_CONT;
     }
-    cont = Few.of(Label.ITER_LOT, cont, lt.cdr());
-    col = cons(new byte[]{Binary.LOT_BEGIN}, col);
+    int list = openList();
+    ends[index] = -(list + 1);
+    put(Binary.LOT_BEGIN);
+    cont.push(Label.ITER_LOT, lt.cdr(), list);
     datum = lt.car();
     return Label.OF_DATUM;
   }
   else {
-    byte[] bin = encodeNonContainer();
-    col = cons(bin, col);
+    put(encodeNonContainer());
+    ends[index] = size;
     return Label.APPLY_CONT;
   }
 }
 
-private String ofDatum() {
-  int index = getIndex(datum);
-  if (index >= 0) {
-    col = cons(shareIndex(index), col);
-    return Label.APPLY_CONT;
-  }
-
-  return ofShared();
-}
-
-private String applyCont() {
-  String label = (String) cont.ref(0);
+private int applyCont() {
+  int label = cont.kind();
 
   switch (label) {
     case Label.END_CONT -> { return Label.EXIT; }
-    case Label.ITER_SHARED -> {
-      int length = (int) cont.ref(2);
-      int index  = (int) cont.ref(3);
+    case Label.ITER_FEW -> {
+      Few fw     = (Few) cont.object(0);
+      int length = cont.number(0);
+      int index  = cont.number(1);
       if (index == length) {
-        cont = (Few) cont.ref(1);
+        ends[cont.number(2)] = size;
+        cont.pop();
         return Label.APPLY_CONT;
       }
       else {
-        cont.set(3, index + 1);
-        datum = shared.ref(index);
-        return Label.OF_SHARED;
+        cont.setNumber(1, index + 1);
+        datum = fw.ref(index);
+        return Label.OF_DATUM;
       }
     }
-    //noinspection DuplicatedCode
-    case Label.ITER_FEW -> {
-      int length = (int) cont.ref(2);
-      int index  = (int) cont.ref(3);
-      Few fw     = (Few) cont.ref(4);
+    case Label.ITER_VEC -> {
+      PersistentFew pf     = (PersistentFew) cont.object(0);
+      int           length = cont.number(0);
+      int           index  = cont.number(1);
       if (index == length) {
-        cont = (Few) cont.ref(1);
+        ends[cont.number(2)] = size;
+        cont.pop();
         return Label.APPLY_CONT;
       }
       else {
-        cont.set(3, index + 1);
-        datum = fw.ref(index);
+        cont.setNumber(1, index + 1);
+        datum = pf.ref(index);
         return Label.OF_DATUM;
       }
     }
     case Label.ITER_LOT -> {
-      Lot lt = (Lot) cont.ref(2);
+      Lot lt   = (Lot) cont.object(0);
+      int list = cont.number(0);
 
-      int index = getIndex(lt);
-      if (index >= 0) {
-        col = cons(new byte[]{Binary.NEXT_LOT}, col);
-        col = cons(shareIndex(index), col);
-        cont = (Few) cont.ref(1);
+      if (!seen.insert(lt, false)) {
+        int index = seen.index(lt);
+        share(index);
+        refer(index, true);
+        put(Binary.NEXT_LOT);
+        put(Binary.SHARE_INDEX);
+        list_ends[list] = size;
+        cont.pop();
         return Label.APPLY_CONT;
       }
 
+      int index = remember(AS_CDR);
+      ends[index] = -(list + 1);
       if (lt.isEmpty()) {
-        col = cons(new byte[]{Binary.LOT_END}, col);
-        cont = (Few) cont.ref(1);
+        put(Binary.LOT_END);
+        list_ends[list] = size;
+        cont.pop();
         return Label.APPLY_CONT;
       }
       else {
-        cont.set(2, lt.cdr());
+        cont.setObject(0, lt.cdr());
         datum = lt.car();
         return Label.OF_DATUM;
       }
@@ -179,6 +231,11 @@ private byte[] encodeNonContainer() {
     case long[] ls -> { return BinaryMate.encodeLongs(ls); }
     case float[] fs -> { return BinaryMate.encodeFloats(fs); }
     case double[] ds -> { return BinaryMate.encodeDoubles(ds); }
+    case byte[] bs -> { return BinaryMate.encodeBytes(bs); }
+    case IntFew fw -> { return BinaryMate.encodeInts(fw.toArray()); }
+    case LongFew fw -> { return BinaryMate.encodeLongs(fw.toArray()); }
+    case DoubleFew fw -> { return BinaryMate.encodeDoubles(fw.toArray()); }
+    case ByteFew fw -> { return BinaryMate.encodeBytes(fw.toArray()); }
     case Character c -> { return Binary.encodeChar(c); }
     case String str -> { return Binary.encodeString(str); }
     case Time t -> { return BinaryMate.encodeTime(t); }
@@ -190,21 +247,183 @@ private byte[] encodeNonContainer() {
   }
 }
 
-private int getIndex(Object datum) {
-  int key = System.identityHashCode(datum);
-  if (shared_index.isPresent(key)) {
-    return (int) shared_index.ref(key);
+private void put(byte b) {
+  if (size == bin.length) {
+    bin = Arrays.copyOf(bin, size * 2);
+  }
+  bin[size] = b;
+  size += 1;
+}
+
+private void put(byte @NotNull [] bs) {
+  if (size + bs.length > bin.length) {
+    bin = Arrays.copyOf(bin, Math.max(size * 2, size + bs.length));
+  }
+  System.arraycopy(bs, 0, bin, size, bs.length);
+  size += bs.length;
+}
+
+private void put(byte @NotNull [] bs, int start, int bound) {
+  int length = bound - start;
+  if (size + length > bin.length) {
+    bin = Arrays.copyOf(bin, Math.max(size * 2, size + length));
+  }
+  System.arraycopy(bs, start, bin, size, length);
+  size += length;
+}
+
+private int remember(byte kind) {
+  int index = seen.size() - 1;
+  if (index == starts.length) {
+    int capacity = index * 2;
+    starts = Arrays.copyOf(starts, capacity);
+    ends = Arrays.copyOf(ends, capacity);
+    kinds = Arrays.copyOf(kinds, capacity);
+    shared = Arrays.copyOf(shared, capacity);
+  }
+  starts[index] = size;
+  kinds[index] = kind;
+  return index;
+}
+
+private void share(int index) {
+  if (!shared[index]) {
+    shared[index] = true;
+    shared_count += 1;
+  }
+}
+
+private void refer(int index, boolean is_cdr) {
+  if (ref_count * 3 == refs.length) {
+    refs = Arrays.copyOf(refs, refs.length * 2);
+  }
+  refs[ref_count * 3] = size;
+  refs[ref_count * 3 + 1] = index;
+  refs[ref_count * 3 + 2] = is_cdr ? 1 : 0;
+  ref_count += 1;
+}
+
+private int openList() {
+  if (lists == list_ends.length) {
+    list_ends = Arrays.copyOf(list_ends, lists * 2);
+  }
+  lists += 1;
+  return lists - 1;
+}
+
+
+//region Patching
+
+// The pieces to cut out of the encoded bytes: the shared objects and the placeholder references.
+// They are collected in the order of their start, a piece enclosing another one comes first.
+private int[] cut_starts;
+private int[] cut_ends;
+private int[] cut_targets;
+private int[] cut_kinds;
+private int[] cut_skips;    // the next piece which is not enclosed in this one
+private int[] labels;
+
+private static final int CUT_DATUM = 0;
+private static final int CUT_CDR   = 1;
+private static final int CUT_REF   = 2;
+private static final int CUT_NEXT  = 3;
+
+private byte @NotNull [] patch() {
+  int count = shared_count + ref_count;
+  cut_starts = new int[count];
+  cut_ends = new int[count];
+  cut_targets = new int[count];
+  cut_kinds = new int[count];
+  cut_skips = new int[count];
+  labels = new int[seen.size()];
+
+  int n     = 0;
+  int order = 0;
+  int r     = 0;
+  for (int i = 0; i < seen.size(); i += 1) {
+    while (r < ref_count && refs[r * 3] < starts[i]) {
+      n = cutRef(n, r);
+      r += 1;
+    }
+    if (shared[i]) {
+      labels[i] = order;
+      order += 1;
+      cut_starts[n] = starts[i];
+      cut_ends[n] = ends[i] >= 0 ? ends[i] : list_ends[-ends[i] - 1];
+      cut_targets[n] = i;
+      cut_kinds[n] = kinds[i] == AS_CDR ? CUT_CDR : CUT_DATUM;
+      n += 1;
+    }
+  }
+  while (r < ref_count) {
+    n = cutRef(n, r);
+    r += 1;
+  }
+
+  int[] stack = new int[count];
+  int   top   = 0;
+  for (int i = 0; i < count; i += 1) {
+    while (top > 0 && cut_ends[stack[top - 1]] <= cut_starts[i]) {
+      top -= 1;
+      cut_skips[stack[top]] = i;
+    }
+    stack[top] = i;
+    top += 1;
+  }
+  while (top > 0) {
+    top -= 1;
+    cut_skips[stack[top]] = count;
+  }
+
+  byte[] raw  = bin;
+  int    body = size;
+  int    root = 2;      // the datum begins after the empty shared table
+  bin = new byte[body + count * 4];
+  size = 0;
+  put(Binary.FEW);
+  put(Binary.encodeVarI32(shared_count));
+  for (int i = 0; i < count; i += 1) {
+    if (cut_kinds[i] == CUT_CDR) {
+      put(Binary.LOT_BEGIN);
+      emit(raw, i + 1, cut_starts[i], cut_ends[i]);
+    }
+    else if (cut_kinds[i] == CUT_DATUM) {
+      emit(raw, i + 1, cut_starts[i], cut_ends[i]);
+    }
+  }
+  emit(raw, 0, root, body);
+  return Arrays.copyOf(bin, size);
+}
+
+private int cutRef(int n, int r) {
+  int start = refs[r * 3];
+  cut_starts[n] = start;
+  if (refs[r * 3 + 2] == 1) {
+    cut_ends[n] = start + 2;
+    cut_kinds[n] = CUT_NEXT;
   }
   else {
-    return -1;
+    cut_ends[n] = start + 1;
+    cut_kinds[n] = CUT_REF;
   }
+  cut_targets[n] = refs[r * 3 + 1];
+  return n + 1;
 }
 
-private static byte @NotNull [] shareIndex(int index) {
-  byte[] lll = Binary.encodeVarI32(index);
-  byte[] xxx = new byte[1 + lll.length];
-  xxx[0] = Binary.SHARE_INDEX;
-  System.arraycopy(lll, 0, xxx, 1, lll.length);
-  return xxx;
+private void emit(byte[] raw, int first, int start, int bound) {
+  int cursor = start;
+  int i      = first;
+  while (i < cut_starts.length && cut_starts[i] < bound) {
+    put(raw, cursor, cut_starts[i]);
+    if (cut_kinds[i] == CUT_CDR || cut_kinds[i] == CUT_NEXT) {
+      put(Binary.NEXT_LOT);
+    }
+    put(Binary.SHARE_INDEX);
+    put(Binary.encodeVarI32(labels[cut_targets[i]]));
+    cursor = cut_ends[i];
+    i = cut_skips[i];
+  }
+  put(raw, cursor, bound);
 }
+//endregion
 }
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.datetime.Date;
+import essential.datetime.Time;
+import essential.progressive.ByteFew;
+import essential.progressive.DoubleFew;
+import essential.progressive.Few;
+import essential.progressive.IntFew;
+import essential.progressive.Lot;
+import essential.progressive.LongFew;
+import essential.progressive.PersistentFew;
+
+
+/**
+ * Hashes a datum to 64 bits in the traversal {@link Encoding} makes, without building its bytes.
+ * The type tags, lengths and values that would be encoded are fed as 64-bit words into a
+ * multiply-mix state in the manner of wyhash. A few or a lot reached again is fed as a reference
+ * to the order in which the containers were first reached, so two data have the same hash when
+ * they would have the same encoding, and a cyclic datum hashes like any other. Atoms cannot form
+ * cycles and are not remembered, so an atom shared by identity hashes like equal copies of it.
+ */
+class Hashing {
+
+private static final long P0 = 0xA0761D6478BD642FL;
+private static final long P1 = 0xE7037ED1A0B428DBL;
+private static final long P2 = 0x8EBC6AF09C88C6E3L;
+private static final long P3 = 0x589965CC75374CC3L;
+
+private final IdentityMap  seen;
+private final Continuation cont;
+private       Object       datum;
+private       long         state;
+private       long         words;
+private       long         pending;        // values packed into the next word
+private       int          pending_bits;
+
+Hashing(Object datum) {
+  seen = new IdentityMap();
+  cont = Continuation.acquire();
+  this.datum = datum;
+  state = P0;
+  words = 0;
+  pending = 0;
+  pending_bits = 0;
+}
+
+long process() {
+  try {
+    route();
+  }
+  finally {
+    cont.release();
+  }
+  return mix(state ^ words, P3);
+}
+
+private static long mix(long a, long b) {
+  return Math.unsignedMultiplyHigh(a, b) ^ (a * b);
+}
+
+private void feed(long word) {
+  state = mix(state ^ P1, word ^ P2);
+  words += 1;
+}
+
+private void feed(byte tag, long value) {
+  feed(((long) tag << 56) ^ value);
+}
+
+private void route() {
+  int next = Label.OF_DATUM;
+  while (true) {
+    switch (next) {
+      case Label.OF_DATUM -> next = ofDatum();
+      case Label.APPLY_CONT -> next = applyCont();
+      case Label.EXIT -> { return; }
+    }
+  }
+}
+
+private int ofDatum() {
+  boolean container = datum instanceof Few || datum instanceof PersistentFew || datum instanceof Lot;
+  if (container && !seen.insert(datum, false)) {
+    feed(Binary.SHARE_INDEX, seen.index(datum));
+    return Label.APPLY_CONT;
+  }
+
+  if (datum instanceof Few fw) {
+    int length = fw.length();
+    feed(Binary.FEW, length);
+    if (length == 0) {
+      return Label.APPLY_CONT;
+    }
+    cont.push(Label.ITER_FEW, fw, null, length, 1, 0);
+    datum = fw.ref(0);
+    return Label.OF_DATUM;
+  }
+  else if (datum instanceof PersistentFew pf) {
+    int length = pf.length();
+    feed(Binary.FEW, length);
+    if (length == 0) {
+      return Label.APPLY_CONT;
+    }
+    cont.push(Label.ITER_VEC, pf, null, length, 1, 0);
+    datum = pf.ref(0);
+    return Label.OF_DATUM;
+  }
+  else if (datum instanceof Lot lt) {
+    feed(Binary.LOT_BEGIN, 0);
+    if (lt.isEmpty()) {
+      feed(Binary.LOT_END, 0);
+      return Label.APPLY_CONT;
+    }
+    cont.push(Label.ITER_LOT, lt.cdr(), null);
+    datum = lt.car();
+    return Label.OF_DATUM;
+  }
+  else {
+    feedNonContainer();
+    return Label.APPLY_CONT;
+  }
+}
+
+private int applyCont() {
+  int label = cont.kind();
+
+  switch (label) {
+    case Label.END_CONT -> { return Label.EXIT; }
+    case Label.ITER_FEW -> {
+      Few fw     = (Few) cont.object(0);
+      int length = cont.number(0);
+      int index  = cont.number(1);
+      if (index == length) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setNumber(1, index + 1);
+        datum = fw.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.ITER_VEC -> {
+      PersistentFew pf     = (PersistentFew) cont.object(0);
+      int           length = cont.number(0);
+      int           index  = cont.number(1);
+      if (index == length) {
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setNumber(1, index + 1);
+        datum = pf.ref(index);
+        return Label.OF_DATUM;
+      }
+    }
+    case Label.ITER_LOT -> {
+      Lot lt = (Lot) cont.object(0);
+      if (!seen.insert(lt, false)) {
+        feed(Binary.NEXT_LOT, ((long) Binary.SHARE_INDEX << 48) ^ seen.index(lt));
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      if (lt.isEmpty()) {
+        feed(Binary.LOT_END, 0);
+        cont.pop();
+        return Label.APPLY_CONT;
+      }
+      else {
+        cont.setObject(0, lt.cdr());
+        datum = lt.car();
+        return Label.OF_DATUM;
+      }
+    }
+    default -> throw new RuntimeException("undefined continuation " + label);
+  }
+}
+
+private void feedNonContainer() {
+  switch (datum) {
+    case Boolean b -> feed(b ? Binary.BOOLEAN_TRUE : Binary.BOOLEAN_FALSE, 0);
+    case Short s -> feed(Binary.SHORT, s & 0xFFFFL);
+    case Integer in -> feed(Binary.INT, in & 0xFFFFFFFFL);
+    case Long l -> {
+      feed(Binary.LONG, 0);
+      feed(l);
+    }
+    case Float f -> feed(Binary.FLOAT, Float.floatToIntBits(f) & 0xFFFFFFFFL);
+    case Double d -> {
+      feed(Binary.DOUBLE, 0);
+      feed(Double.doubleToLongBits(d));
+    }
+    case boolean[] bs -> feedBooleans(bs);
+    case short[] ss -> feedShorts(ss);
+    case int[] ins -> feedInts(ins);
+    case long[] ls -> feedLongs(ls);
+    case float[] fs -> feedFloats(fs);
+    case double[] ds -> feedDoubles(ds);
+    case byte[] bs -> feedBytes(bs);
+    case IntFew fw -> feedInts(fw);
+    case LongFew fw -> feedLongs(fw);
+    case DoubleFew fw -> feedDoubles(fw);
+    case ByteFew fw -> feedBytes(fw);
+    case Character c -> feed(Binary.CHAR, c);
+    case String str -> feedString(str);
+    case Time t -> {
+      feed(Binary.TIME, t.nanosecond() & 0xFFFFFFFFL);
+      feed(t.second());
+    }
+    case Date d -> {
+      feed(Binary.DATE, d.year() & 0xFFFFFFFFL);
+      feed(((long) d.month() << 40) ^ ((long) d.dayOfMonth() << 32) ^
+           ((long) d.dayOfWeek() << 24) ^ ((long) d.hour() << 16) ^
+           ((long) d.minute() << 8) ^ d.second());
+      feed(((long) d.nanosecond() << 32) ^ (d.offset() & 0xFFFFFFFFL));
+    }
+    default -> {
+      String msg = String.format(Msg.UNSUPPORTED, datum.getClass().getName());
+      throw new RuntimeException(msg);
+    }
+  }
+}
+
+/**
+ * Packs a value of the given bits into the pending word, which is fed when full.
+ */
+private void pack(long value, int bits) {
+  pending = (pending << bits) | value;
+  pending_bits += bits;
+  if (pending_bits == 64) {
+    feed(pending);
+    pending = 0;
+    pending_bits = 0;
+  }
+}
+
+private void flush() {
+  if (pending_bits != 0) {
+    feed(pending);
+    pending = 0;
+    pending_bits = 0;
+  }
+}
+
+private void feedBooleans(boolean[] bs) {
+  feed(Binary.BOOLEANS, bs.length);
+  for (boolean b : bs) {
+    pack(b ? 1 : 0, 1);
+  }
+  flush();
+}
+
+private void feedShorts(short[] ss) {
+  feed(Binary.SHORTS, ss.length);
+  for (short n : ss) {
+    pack(n & 0xFFFFL, 16);
+  }
+  flush();
+}
+
+private void feedInts(int[] ins) {
+  feed(Binary.INTS, ins.length);
+  for (int n : ins) {
+    pack(n & 0xFFFFFFFFL, 32);
+  }
+  flush();
+}
+
+private void feedInts(IntFew fw) {
+  int length = fw.length();
+  feed(Binary.INTS, length);
+  for (int i = 0; i < length; i += 1) {
+    pack(fw.ref(i) & 0xFFFFFFFFL, 32);
+  }
+  flush();
+}
+
+private void feedLongs(long[] ls) {
+  feed(Binary.LONGS, ls.length);
+  for (long n : ls) {
+    feed(n);
+  }
+}
+
+private void feedLongs(LongFew fw) {
+  int length = fw.length();
+  feed(Binary.LONGS, length);
+  for (int i = 0; i < length; i += 1) {
+    feed(fw.ref(i));
+  }
+}
+
+private void feedFloats(float[] fs) {
+  feed(Binary.FLOATS, fs.length);
+  for (float n : fs) {
+    pack(Float.floatToRawIntBits(n) & 0xFFFFFFFFL, 32);
+  }
+  flush();
+}
+
+private void feedDoubles(double[] ds) {
+  feed(Binary.DOUBLES, ds.length);
+  for (double n : ds) {
+    feed(Double.doubleToLongBits(n));
+  }
+}
+
+private void feedDoubles(DoubleFew fw) {
+  int length = fw.length();
+  feed(Binary.DOUBLES, length);
+  for (int i = 0; i < length; i += 1) {
+    feed(Double.doubleToLongBits(fw.ref(i)));
+  }
+}
+
+private void feedBytes(byte[] bs) {
+  feed(Binary.BYTES, bs.length);
+  for (byte n : bs) {
+    pack(n & 0xFFL, 8);
+  }
+  flush();
+}
+
+private void feedBytes(ByteFew fw) {
+  int length = fw.length();
+  feed(Binary.BYTES, length);
+  for (int i = 0; i < length; i += 1) {
+    pack(fw.ref(i) & 0xFFL, 8);
+  }
+  flush();
+}
+
+private void feedString(String str) {
+  int length = str.length();
+  feed(Binary.STRING, length);
+  for (int i = 0; i < length; i += 1) {
+    pack(str.charAt(i), 16);
+  }
+  flush();
+}
+}
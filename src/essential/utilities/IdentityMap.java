@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.functional.Do1;
+import essential.progressive.Lot;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+import static essential.progressive.Pr.cons;
+
+
+/**
+ * An open-addressing hash map whose keys are compared by object identity ({@code ==}), not by
+ * {@code equals}. Every key is given an index in the order it was inserted, so the entries can be
+ * visited deterministically by {@link #keyAt(int)} and {@link #valueAt(int)}.
+ */
+public class IdentityMap {
+
+private static final int MIN_CAPACITY = 16;
+
+private Object[] keys;
+private Object[] values;
+private int[]    slots;     // index + 1 of the entry, 0 for a vacant slot
+private int      mask;
+private int      size;
+
+public IdentityMap() {
+  this(MIN_CAPACITY);
+}
+
+/**
+ * @param capacity the expected number of entries.
+ */
+public IdentityMap(int capacity) {
+  if (capacity < 0) {
+    String msg = String.format(Msg.INVALID_CAPACITY, capacity);
+    throw new RuntimeException(msg);
+  }
+  int entries = Math.max(MIN_CAPACITY, capacity);
+  keys = new Object[entries];
+  values = new Object[entries];
+  slots = new int[tableSize(entries)];
+  mask = slots.length - 1;
+  size = 0;
+}
+
+private static int tableSize(int entries) {
+  int n = Integer.highestOneBit(entries - 1) << 2;
+  return Math.max(n, MIN_CAPACITY * 2);
+}
+
+private static int hash(Object key) {
+  int h = System.identityHashCode(key) * 0x9E3779B9;
+  return h ^ (h >>> 16);
+}
+
+@Override
+public String toString() {
+  return String.format("«Identity-Map %s»", travel());
+}
+
+public boolean isEmpty() {
+  return size == 0;
+}
+
+public int size() {
+  return size;
+}
+
+/**
+ * The insertion index of a key.
+ *
+ * @param key the key to look up.
+ * @return the index of the key, -1 if the key is not present.
+ */
+public int index(Object key) {
+  int i = hash(key) & mask;
+  while (true) {
+    int slot = slots[i];
+    if (slot == 0) {
+      return -1;
+    }
+    else if (keys[slot - 1] == key) {
+      return slot - 1;
+    }
+    i = (i + 1) & mask;
+  }
+}
+
+public boolean isPresent(Object key) {
+  return index(key) >= 0;
+}
+
+/**
+ * Inserts a key-value pair. If the key is already present, the insertion fails and returns false.
+ * A successful insertion gives the key the index {@code size() - 1}.
+ *
+ * @param key   the key to insert.
+ * @param value the value to insert.
+ * @return {@code true} if inserting succeeded, {@code false} otherwise.
+ */
+public boolean insert(Object key, Object value) {
+  int i = hash(key) & mask;
+  while (true) {
+    int slot = slots[i];
+    if (slot == 0) {
+      break;
+    }
+    else if (keys[slot - 1] == key) {
+      return false;
+    }
+    i = (i + 1) & mask;
+  }
+
+  if (size == keys.length) {
+    grow();
+    i = hash(key) & mask;
+    while (slots[i] != 0) {
+      i = (i + 1) & mask;
+    }
+  }
+  keys[size] = key;
+  values[size] = value;
+  size += 1;
+  slots[i] = size;
+  return true;
+}
+
+private void grow() {
+  int entries = keys.length * 2;
+  keys = Arrays.copyOf(keys, entries);
+  values = Arrays.copyOf(values, entries);
+  slots = new int[tableSize(entries)];
+  mask = slots.length - 1;
+  for (int k = 0; k < size; k += 1) {
+    int i = hash(keys[k]) & mask;
+    while (slots[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    slots[i] = k + 1;
+  }
+}
+
+/**
+ * Retrieves the value associated with the specified key.
+ *
+ * @throws RuntimeException if the key is not present.
+ */
+public Object ref(Object key) {
+  int index = index(key);
+  if (index < 0) {
+    String msg = String.format(Msg.NOT_PRESENT, key, this);
+    throw new RuntimeException(msg);
+  }
+  else {
+    return values[index];
+  }
+}
+
+/**
+ * Sets the value associated with the given key.
+ *
+ * @throws RuntimeException if the key is not present.
+ */
+public void set(Object key, Object new_value) {
+  int index = index(key);
+  if (index < 0) {
+    String msg = String.format(Msg.NOT_PRESENT, key, this);
+    throw new RuntimeException(msg);
+  }
+  else {
+    values[index] = new_value;
+  }
+}
+
+public Object keyAt(int index) {
+  checkIndex(index);
+  return keys[index];
+}
+
+public Object valueAt(int index) {
+  checkIndex(index);
+  return values[index];
+}
+
+public void setValueAt(int index, Object new_value) {
+  checkIndex(index);
+  values[index] = new_value;
+}
+
+private void checkIndex(int index) {
+  if (index < 0 || size <= index) {
+    String msg = String.format(Msg.INDEX_OUT, index, size);
+    throw new RuntimeException(msg);
+  }
+}
+
+/**
+ * Removes all entries, keeping the allocated capacity.
+ */
+public void clear() {
+  Arrays.fill(keys, 0, size, null);
+  Arrays.fill(values, 0, size, null);
+  Arrays.fill(slots, 0);
+  size = 0;
+}
+
+/**
+ * Lists the key-value pairs in insertion order.
+ *
+ * @return a list of key-value pairs, each of the form {@code (key value)}.
+ */
+public @NotNull Lot travel() {
+  Lot col = Lot.of();
+  for (int i = size - 1; 0 <= i; i -= 1) {
+    col = cons(Lot.of(keys[i], values[i]), col);
+  }
+  return col;
+}
+
+/**
+ * Maps the values with the given procedure, keeping the keys and their indexes.
+ *
+ * @param fn the procedure to modify value.
+ * @return a mapped identity map.
+ */
+public @NotNull IdentityMap map(Do1 fn) {
+  IdentityMap new_map = new IdentityMap(size);
+  for (int i = 0; i < size; i += 1) {
+    new_map.insert(keys[i], fn.apply(values[i]));
+  }
+  return new_map;
+}
+}
@@ -9,22 +9,21 @@ package essential.utilities;
 
 class Label {
 
-static final String OF_NODE    = "of-node";
-static final String OF_SHARED  = "of-shared";
-static final String OF_DATUM   = "of-datum";
-static final String OF_BYTE    = "of-byte";
-static final String APPLY_CONT = "apply-cont";
-static final String EXIT       = "exit";
+static final int OF_NODE    = 1;
+static final int OF_DATUM   = 2;
+static final int OF_BYTE    = 3;
+static final int APPLY_CONT = 4;
+static final int EXIT       = 5;
 
-static final String END_CONT    = "end-cont";
-static final String RIGHT_NODE  = "right-node";
-static final String END_NODE    = "end-node";
-static final String ITER_SHARED = "iter-shared";
-static final String ITER_FEW    = "iter-few";
-static final String ITER_LOT    = "iter-lot";
-static final String NEXT_LOT    = "next-lot";
+static final int END_CONT   = Continuation.END_CONT;
+static final int RIGHT_NODE = 1;
+static final int END_NODE   = 2;
+static final int ITER_FEW   = 3;
+static final int ITER_LOT   = 4;
+static final int NEXT_LOT   = 5;
+static final int ITER_VEC   = 6;
 
-static final String SET_CDR = "set-cdr";
-static final String SET_CAR = "set-car";
-static final String SET_FEW = "set-few";
+static final int SET_CDR = 1;
+static final int SET_CAR = 2;
+static final int SET_FEW = 3;
 }
@@ -19,7 +19,11 @@ static final String INVALID_BIN_BYTE = "invalid binary byte %s in index %s";
 static final String INVALID_RB_NODE  = "invalid red-black-tree node:\n%s";
 static final String INVALID_AVL_NODE = "invalid AVL-tree node:\n%s";
 static final String EMPTY_TREE       = "empty tree";
-static final String NOT_PRESENT      = "key %s is not present in tree %s";
+static final String NOT_PRESENT      = "key %s is not present in %s";
+
+// Map
+static final String INVALID_CAPACITY = "capacity %s is not a natural number";
+static final String INDEX_OUT        = "index %s is out of range for size %s";
 
 // Queue
 static final String EMPTY_QUEUE = "empty queue";
@@ -46,6 +46,11 @@ public boolean equals(Object datum) {
   }
 }
 
+@Override
+public int hashCode() {
+  return stack1.hashCode() * 31 + stack2.hashCode();
+}
+
 @Override
 public String toString() {
   return String.format("«Queue %s»", append(stack1, stack2.reverse()));
@@ -86,23 +86,28 @@ static boolean isNil(Few node) {
 
 static boolean isValidNode(Few node) {
   NodeChecker checker = new NodeChecker(node);
-  checker.route();
+  try {
+    checker.route();
+  }
+  finally {
+    checker.cont.release();
+  }
   return checker.r0;
 }
 
 private static class NodeChecker {
-  private Few     cont;
-  private Few     node;
-  private boolean r0;
+  private final Continuation cont;
+  private       Few          node;
+  private       boolean      r0;
 
   private NodeChecker(Few node) {
-    cont = Few.of(Label.END_CONT);
+    cont = Continuation.acquire();
     this.node = node;
   }
 
   private void route() {
     //noinspection DuplicatedCode
-    String next = Label.OF_NODE;
+    int next = Label.OF_NODE;
     while (true) {
       switch (next) {
         case Label.OF_NODE -> next = ofNode();
@@ -112,12 +117,12 @@ private static class NodeChecker {
     }
   }
 
-  private String ofNode() {
+  private int ofNode() {
     if (node.length() == 5 &&
         node.ref(2) instanceof Boolean) {
       if (node.ref(3) instanceof Few &&
           node.ref(4) instanceof Few) {
-        cont = Few.of(Label.RIGHT_NODE, cont, node.ref(4));
+        cont.push(Label.RIGHT_NODE, node.ref(4));
         node = (Few) node.ref(3);
         return Label.OF_NODE;
       }
@@ -143,19 +148,19 @@ private static class NodeChecker {
     }
   }
 
-  private String applyCont() {
-    String label = (String) cont.ref(0);
+  private int applyCont() {
+    int label = cont.kind();
 
     switch (label) {
       case Label.END_CONT -> { return Label.EXIT; }
       case Label.RIGHT_NODE -> {
         if (r0) {
-          node = (Few) cont.ref(2);
-          cont = (Few) cont.ref(1);
+          node = (Few) cont.object(0);
+          cont.pop();
           return Label.OF_NODE;
         }
         else {
-          cont = (Few) cont.ref(1);
+          cont.pop();
           return Label.APPLY_CONT;
         }
       }
@@ -166,24 +171,29 @@ private static class NodeChecker {
 
 static @NotNull String toString(Few node) {
   ToString inst = new ToString(node);
-  inst.route();
+  try {
+    inst.route();
+  }
+  finally {
+    inst.cont.release();
+  }
   return inst.builder.toString();
 }
 
 private static class ToString {
-  private       Few           cont;
+  private final Continuation  cont;
   private       Few           node;
   private final StringBuilder builder;
 
   private ToString(Few node) {
-    cont = Few.of(Label.END_CONT);
+    cont = Continuation.acquire();
     this.node = node;
     builder = new StringBuilder();
   }
 
   private void route() {
     //noinspection DuplicatedCode
-    String next = Label.OF_NODE;
+    int next = Label.OF_NODE;
     while (true) {
       switch (next) {
         case Label.OF_NODE -> next = ofNode();
@@ -193,7 +203,7 @@ private static class ToString {
     }
   }
 
-  private String ofNode() {
+  private int ofNode() {
     if (isNil(node)) {
       builder.append("nil");
       return Label.APPLY_CONT;
@@ -204,26 +214,26 @@ private static class ToString {
       builder.append(" ");
       builder.append(Pr.toString(value(node)));
       builder.append(" ");
-      cont = Few.of(Label.RIGHT_NODE, cont, right(node));
+      cont.push(Label.RIGHT_NODE, right(node));
       node = (Few) left(node);
       return Label.OF_NODE;
     }
   }
 
-  private String applyCont() {
-    String label = (String) cont.ref(0);
+  private int applyCont() {
+    int label = cont.kind();
 
     switch (label) {
       case Label.END_CONT -> { return Label.EXIT; }
       case Label.RIGHT_NODE -> {
         builder.append(" ");
-        node = (Few) cont.ref(2);
-        cont = Few.of(Label.END_NODE, cont.ref(1));
+        node = (Few) cont.object(0);
+        cont.setKind(Label.END_NODE);
         return Label.OF_NODE;
       }
       case Label.END_NODE -> {
         builder.append(")");
-        cont = (Few) cont.ref(1);
+        cont.pop();
         return Label.APPLY_CONT;
       }
       default -> throw new RuntimeException("undefined continuation " + label);
@@ -9,13 +9,12 @@ package essential.utilities;
 
 import essential.datetime.Time;
 import essential.progressive.Few;
+import essential.progressive.FewBuffer;
 import essential.progressive.Lot;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Random;
 
-import static essential.progressive.Pr.cons;
-
 @SuppressWarnings("SpellCheckingInspection")
 public class RandGenerator {
 
@@ -101,22 +100,22 @@ public static @NotNull Few shuffle(@NotNull Few fw) {
   }
 
   boolean[] used = new boolean[length];
-  Lot       col  = Lot.of();
+  FewBuffer col  = new FewBuffer(length);
   for (int i = 0; i < length; i += 1) {
     int index = random.nextInt(length);
     if (!used[index]) {
-      col = cons(fw.ref(index), col);
+      col.add(fw.ref(index));
       used[index] = true;
     }
   }
   for (int i = 0; i < length; i += 2) {
     if (!used[i]) {
-      col = cons(fw.ref(i), col);
+      col.add(fw.ref(i));
     }
   }
   for (int i = 1; i < length; i += 2) {
     if (!used[i]) {
-      col = cons(fw.ref(i), col);
+      col.add(fw.ref(i));
     }
   }
   return col.toFew();
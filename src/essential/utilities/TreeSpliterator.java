@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.progressive.Few;
+import essential.progressive.Lot;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+
+/**
+ * Walks the nodes of a binary search tree in order, giving the pairs {@code (key value)} like
+ * {@code travel()}. The stack holds the nodes still to give, each followed by its right subtree,
+ * with the next node on top. Splitting hands the upper part of the stack, which comes first, to
+ * the new spliterator, so a fresh tree splits into its left subtree and the rest. The size of the
+ * tree is exact until the stack is split, after which both parts only estimate theirs.
+ */
+class TreeSpliterator implements Spliterator<Object> {
+
+private final int     left_slot;
+private final int     right_slot;
+private       Few[]   stack;
+private       int     top;
+private       long    estimate;
+private       boolean sized;      // the estimate is exact
+
+TreeSpliterator(Few root, int size, int left_slot, int right_slot) {
+  this.left_slot = left_slot;
+  this.right_slot = right_slot;
+  stack = new Few[16];
+  top = 0;
+  estimate = size;
+  sized = true;
+  pushLeft(root);
+}
+
+private TreeSpliterator(int left_slot, int right_slot, Few[] stack, int top, long estimate) {
+  this.left_slot = left_slot;
+  this.right_slot = right_slot;
+  this.stack = stack;
+  this.top = top;
+  this.estimate = estimate;
+  sized = false;
+}
+
+private static boolean isNil(Few node) {
+  return node.ref(0) instanceof Boolean;
+}
+
+private void pushLeft(Few node) {
+  while (!isNil(node)) {
+    if (top == stack.length) {
+      stack = Arrays.copyOf(stack, top * 2);
+    }
+    stack[top] = node;
+    top += 1;
+    node = (Few) node.ref(left_slot);
+  }
+}
+
+@Override
+public boolean tryAdvance(Consumer<? super Object> action) {
+  if (top == 0) {
+    return false;
+  }
+  top -= 1;
+  Few node = stack[top];
+  stack[top] = null;
+  pushLeft((Few) node.ref(right_slot));
+  if (sized) {
+    estimate -= 1;
+  }
+  action.accept(Lot.of(node.ref(0), node.ref(1)));
+  return true;
+}
+
+@Override
+public Spliterator<Object> trySplit() {
+  if (top > 1) {
+    Few[] upper = Arrays.copyOfRange(stack, 1, top);
+    int   n     = top - 1;
+    Arrays.fill(stack, 1, top, null);
+    top = 1;
+    sized = false;
+    estimate >>>= 1;
+    return new TreeSpliterator(left_slot, right_slot, upper, n, estimate);
+  }
+  else if (top == 1 && !isNil((Few) stack[0].ref(right_slot))) {
+    Few node = stack[0];
+    stack[0] = null;
+    top = 0;
+    pushLeft((Few) node.ref(right_slot));
+    estimate = sized ? estimate - 1 : estimate >>> 1;
+    Object[] pair = new Object[]{Lot.of(node.ref(0), node.ref(1))};
+    return Spliterators.spliterator(pair, ORDERED | NONNULL);
+  }
+  else {
+    return null;
+  }
+}
+
+@Override
+public long estimateSize() {
+  return estimate;
+}
+
+@Override
+public int characteristics() {
+  return sized ? ORDERED | NONNULL | SIZED : ORDERED | NONNULL;
+}
+}
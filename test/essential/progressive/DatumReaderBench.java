@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import static essential.progressive.Pr.*;
+
+
+/**
+ * Measures how many megabytes of printed text {@link DatumReader} reads per second, from a
+ * {@link String} and from a {@link java.io.Reader}. It is not a test: run it by hand with
+ * {@code java essential.progressive.DatumReaderBench [rounds]}. Each round reads every text
+ * {@link #REPEAT} times and reports the fastest, and the first rounds warm up the JIT, so read the
+ * later ones.
+ */
+class DatumReaderBench {
+
+private static final int REPEAT = 5;
+
+public static void main(String[] args) {
+  int    rounds = args.length == 0 ? 8 : Integer.parseInt(args[0]);
+  Random random = new Random(7);
+  String mixed  = Pr.toString(mixed(random, 200000));
+  String floats = Pr.toString(floats(random, 300000));
+  String linked = Pr.toString(linked(random, 100000));
+  for (int i = 0; i < rounds; i += 1) {
+    System.out.printf("round %d%n", i);
+    measure("mixed lists, strings, fews and int arrays", mixed);
+    measure("doubles", floats);
+    measure("shared and cyclic labelled data", linked);
+  }
+}
+
+private static void measure(String name, String text) {
+  double mb          = text.length() / 1e6;
+  long   from_string = Long.MAX_VALUE;
+  long   from_reader = Long.MAX_VALUE;
+  for (int i = 0; i < REPEAT; i += 1) {
+    long start = System.nanoTime();
+    if (!(new DatumReader(text).next() instanceof Lot)) {
+      throw new RuntimeException("not a lot");
+    }
+    from_string = Math.min(from_string, System.nanoTime() - start);
+
+    start = System.nanoTime();
+    new DatumReader(new StringReader(text)).next();
+    from_reader = Math.min(from_reader, System.nanoTime() - start);
+  }
+  System.out.printf("  %-42s %5.1f MB  String %6.1f MB/s  Reader %6.1f MB/s%n",
+                    name, mb, mb / (from_string / 1e9), mb / (from_reader / 1e9));
+}
+
+private static Lot mixed(Random random, int n) {
+  LotBuilder builder = new LotBuilder();
+  for (int i = 0; i < n; i += 1) {
+    builder.add(switch (random.nextInt(5)) {
+      case 0 -> Lot.of(random.nextInt(), random.nextBoolean(), (char) ('a' + random.nextInt(26)));
+      case 1 -> "text \"" + random.nextInt(1000) + "\"\n";
+      case 2 -> Few.of(random.nextLong(), Lot.of(), "few");
+      case 3 -> new int[]{random.nextInt(), random.nextInt(), random.nextInt()};
+      default -> Lot.of(Few.of(i, Lot.of(i, i + 1)), "nested");
+    });
+  }
+  return builder.build();
+}
+
+private static Lot floats(Random random, int n) {
+  LotBuilder builder = new LotBuilder();
+  for (int i = 0; i < n; i += 1) {
+    builder.add(random.nextDouble() * 1e6);
+  }
+  return builder.build();
+}
+
+private static Lot linked(Random random, int n) {
+  LotBuilder builder = new LotBuilder();
+  for (int i = 0; i < n; i += 1) {
+    Lot cycle = Lot.of(i, "cycle", random.nextInt());
+    setCdr(cycle.cdr().cdr(), cycle);
+    Few fw = Few.of(cycle, 0, "share");
+    fw.set(1, fw);
+    builder.add(Lot.of(fw, fw, cycle));
+  }
+  return builder.build();
+}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static essential.progressive.Pr.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class DatumReaderTest {
+
+@Test
+void read() {
+  Lot lt = Lot.of(1, -20000000000L, 0.5, true, 'a', '\n', "a\"b\\c\n", Lot.of(), Few.of(),
+                  new boolean[]{true}, new byte[]{-1, 10}, new short[]{-3}, new int[]{1, 2},
+                  new long[]{Long.MIN_VALUE}, new float[]{1.5f}, new double[]{-0.0, 1e300});
+  assertEquals(Pr.toString(lt), Pr.toString(Pr.read(Pr.toString(lt))));
+  assertEquals(Lot.of(1, Few.of(2.5, "x")), Pr.read(" (1 #(2.5 \"x\")) "));
+  assertEquals(Lot.of(1, 2, 3), Pr.read("(1 . (2 3))"));
+
+  // sharing and cycles
+  Lot cycle = Lot.of(1, 2);
+  setCdr(cycle.cdr(), cycle);
+  Few fw = Few.of(cycle, 0, "share", "share");
+  fw.set(1, fw);
+  for (Object datum : new Object[]{cycle, fw, Lot.of(fw, fw), cons(1, cycle)}) {
+    String text = Pr.toString(datum);
+    Object back = Pr.read(text);
+    assertEquals(text, Pr.toString(back));
+    assertTrue(Pr.equal(datum, back));
+  }
+  Lot rho = (Lot) Pr.read("(8 9 . #0=(1 2 . #0#))");
+  assertSame(rho.cddr(), rho.cdr().cdr().cddr());
+  Few self = (Few) Pr.read("#0=#(1 (#0#) #0#)");
+  assertSame(self, self.ref(2));
+  assertSame(self, ((Lot) self.ref(1)).car());
+
+  assertThrows(RuntimeException.class, () -> Pr.read("(1 2"));
+  assertThrows(RuntimeException.class, () -> Pr.read("(1 . 2)"));
+  assertThrows(RuntimeException.class, () -> Pr.read("#0#"));
+  assertThrows(RuntimeException.class, () -> Pr.read("#i16(70000)"));
+  assertThrows(RuntimeException.class, () -> Pr.read("1 2"));
+}
+
+@Test
+void stream() {
+  DatumReader reader = new DatumReader(new StringReader("1 #0=(#t . #0#)\n\"x\" "));
+  assertEquals(1, reader.next());
+  assertEquals("#0=(#t . #0#)", Pr.toString(reader.next()));
+  assertEquals("x", reader.next());
+  assertFalse(reader.hasNext());
+  assertThrows(RuntimeException.class, reader::next);
+}
+}
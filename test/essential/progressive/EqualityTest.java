@@ -10,6 +10,7 @@ package essential.progressive;
 import org.junit.jupiter.api.Test;
 
 import static essential.progressive.Pr.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EqualityTest {
@@ -52,4 +53,43 @@ void process() {
   assertTrue(Equality.process(f1, f2));
   assertTrue(Equality.process(l1, l2));
 }
-}
\ No newline at end of file
+
+@Test
+void unfolding() {
+  // equal unfoldings, whatever the sharing
+  Lot c1 = Lot.of(1);
+  setCdr(c1, c1);
+  Lot c2 = Lot.of(1, 1, 1);
+  setCdr(c2.cddr(), c2.cdr());
+  assertTrue(Equality.process(c1, c2));
+  Few f1 = Few.of(0, 0);
+  f1.set(0, f1);
+  f1.set(1, f1);
+  Few f2 = Few.of(f1, Few.of(f1, f1));
+  assertTrue(Equality.process(f1, f2));
+  Few s = Few.of(1);
+  assertTrue(Equality.process(Lot.of(s, s), Lot.of(Few.of(1), Few.of(1))));
+
+  Lot c3 = Lot.of(1, 1, 2);
+  setCdr(c3.cddr(), c3);
+  assertFalse(Equality.process(c1, c3));
+  f2.set(1, Few.of(f1, 2));
+  assertFalse(Equality.process(f1, f2));
+
+  // long enough to leave the first stretch without bookkeeping
+  LotBuilder builder1 = new LotBuilder();
+  LotBuilder builder2 = new LotBuilder();
+  for (int i = 0; i < 10000; i += 1) {
+    builder1.add(Few.of(i, c1));
+    builder2.add(Few.of(i, c2));
+  }
+  Lot l1 = builder1.build();
+  Lot l2 = builder2.build();
+  assertTrue(Equality.process(l1, l2));
+  setCdr(l1.tail(9999), l1);
+  setCdr(l2.tail(9999), l2);
+  assertTrue(Equality.process(l1, l2));
+  setCar(l2.tail(5000), Few.of(5000, c3));
+  assertFalse(Equality.process(l1, l2));
+}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FewBufferTest {
+
+@Test
+void add() {
+  FewBuffer buffer = new FewBuffer(0);
+  for (int i = 0; i < 100; i += 1) {
+    buffer.add(i);
+  }
+  assertEquals(100, buffer.length());
+  assertEquals(42, buffer.ref(42));
+  buffer.addAll(Few.of(100, 101)).addAll(Lot.of(102));
+  assertEquals(103, buffer.length());
+  assertEquals(102, buffer.ref(102));
+  assertThrows(RuntimeException.class, () -> buffer.ref(103));
+}
+
+@Test
+void insertAndRemove() {
+  FewBuffer buffer = new FewBuffer();
+  buffer.addAll(Few.of(1, 2, 5));
+  buffer.insert(2, 4);
+  buffer.insert(2, 3);
+  buffer.insert(0, 0);
+  buffer.insert(6, 6);
+  assertEquals(Few.of(0, 1, 2, 3, 4, 5, 6), buffer.toFew());
+
+  buffer.addAll(Few.of(0, 1, 2, 3, 4, 5, 6));
+  buffer.removeRange(1, 3);
+  buffer.removeRange(4, 5);
+  assertThrows(RuntimeException.class, () -> buffer.removeRange(3, 5));
+  assertThrows(RuntimeException.class, () -> buffer.insert(5, 0));
+  assertEquals(Few.of(0, 3, 4, 5), buffer.toFew());
+}
+
+@Test
+void toFew() {
+  FewBuffer buffer = new FewBuffer(3);
+  buffer.add(1).add(2).add(3);
+  Few fw = buffer.toFew();
+  assertEquals(Few.of(1, 2, 3), fw);
+  assertTrue(buffer.isEmpty());
+  buffer.add(4);
+  assertEquals(Few.of(1, 2, 3), fw);
+
+  buffer.ensureCapacity(10);
+  assertEquals(10, buffer.capacity());
+  buffer.trim();
+  assertEquals(1, buffer.capacity());
+  assertEquals(Few.of(4), buffer.toFew());
+}
+}
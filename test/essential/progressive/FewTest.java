@@ -7,8 +7,10 @@
 
 package essential.progressive;
 
+import essential.utilities.Queue;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static essential.progressive.Pr.equal;
@@ -104,4 +106,68 @@ void sort() {
   fw.sort((o1, o2) -> (int) o1 > (int) o2);
   System.out.println(fw);
 }
-}
\ No newline at end of file
+
+@Test
+void freeze() {
+  Few fw = Few.of(1, Lot.of(2, 3), Few.of(4.0)).freeze();
+  assertTrue(fw.isFrozen());
+  assertThrows(RuntimeException.class, () -> fw.set(0, 0));
+  assertThrows(RuntimeException.class, () -> fw.fill(0));
+  assertThrows(RuntimeException.class, () -> fw.sort((o1, o2) -> false));
+  fw.toArray()[0] = 0;
+  assertEquals(1, fw.ref(0));
+  assertEquals(Few.of(1, Lot.of(2, 3), Few.of(4.0)).freeze(), fw);
+  assertNotEquals(Few.of(1, Lot.of(2, 3), Few.of(5.0)).freeze(), fw);
+  assertEquals(Few.of(0.0).freeze(), Few.of(-0.0).freeze());
+
+  Few cycle = f2.copy();
+  cycle.set(1, cycle);
+  cycle.freeze();
+  assertEquals("#0=#(#t #0# 1 3)", cycle.toString());
+  assertEquals(f2, cycle);
+
+  assertEquals(Few.of(new Queue()).freeze(), Few.of(new Queue()).freeze());
+  UnrolledLot u1 = UnrolledLot.of(1, 2);
+  UnrolledLot u2 = UnrolledLot.of(1, 3);
+  Few         w1 = Few.of(u1).freeze();
+  Few         w2 = Few.of(u2).freeze();
+  u2.cdr().setCar(2);
+  assertEquals(u1, u2);
+  assertEquals(w1, w2);
+
+  int[] arr = {2};
+  Few   a1  = Few.of(new int[]{1}).freeze();
+  Few   a2  = Few.of(arr).freeze();
+  Few   i1  = Few.of(IntFew.of(1)).freeze();
+  Few   i2  = Few.of(IntFew.of(2)).freeze();
+  arr[0] = 1;
+  ((IntFew) i2.ref(0)).set(0, 1);
+  assertEquals(a1, a2);
+  assertEquals(i1, i2);
+}
+
+@Test
+void testHashCode() {
+  Few fw = Few.of(1, Lot.of(2, 3), Few.of(0.0), "s");
+  assertEquals(Few.of(1, Lot.of(2, 3), Few.of(-0.0), "s").hashCode(), fw.hashCode());
+  int hash = fw.hashCode();
+  assertEquals(hash, fw.freeze().hashCode());
+  assertNotEquals(Few.of(1, 2).hashCode(), Few.of(2, 1).hashCode());
+  assertNotEquals(Few.of().hashCode(), Lot.of().hashCode());
+
+  Few c1 = Few.of(1, 0);
+  c1.set(1, c1);
+  Few c2 = Few.of(1, 0);
+  c2.set(1, c2);
+  assertEquals(c1, c2);
+  assertEquals(c1.hashCode(), c2.hashCode());
+  assertEquals(c1.hashCode(), c2.freeze().hashCode());
+
+  HashMap<Object, Object> map = new HashMap<>();
+  map.put(Few.of(1, Few.of(2)), "a");
+  assertEquals("a", map.get(Few.of(1, Few.of(2))));
+
+  assertNotEquals(Few.of(new int[]{1}).hashCode(), Few.of(new int[]{2}).hashCode());
+  assertNotEquals(Few.of(IntFew.of(1)).hashCode(), Few.of(IntFew.of(2)).hashCode());
+}
+}
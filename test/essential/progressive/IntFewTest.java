@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntFewTest {
+
+@Test
+void refAndSet() {
+  IntFew fw = IntFew.make(4, 7);
+  fw.set(2, 3);
+  assertEquals(3, fw.ref(2));
+  assertEquals(7, fw.ref(3));
+  assertThrows(RuntimeException.class, () -> fw.ref(4));
+  assertThrows(RuntimeException.class, () -> fw.set(-1, 0));
+  fw.fill(0);
+  assertEquals(IntFew.make(4, 0), fw);
+}
+
+@Test
+void mapAndFind() {
+  IntFew fw = IntFew.of(5, 1, 4, 2, 3);
+  assertEquals(IntFew.of(10, 2, 8, 4, 6), fw.map(n -> n * 2));
+  assertEquals(2, fw.find(n -> n > 3 && n < 5));
+  assertEquals(-1, fw.find(n -> n > 5));
+  assertEquals(IntFew.of(1, 2, 3, 4, 5), fw.sorted());
+  assertEquals(IntFew.of(5, 1, 4, 2, 3), fw);
+  assertEquals(Few.of(5, 1, 4, 2, 3), fw.toFew());
+}
+
+@Test
+void otherVectors() {
+  assertEquals(LongFew.of(1L, 2L, 3L), LongFew.of(3L, 1L, 2L).sorted());
+  assertEquals(DoubleFew.of(0.5, 1.5), DoubleFew.of(1.0, 3.0).map(d -> d / 2));
+  assertEquals(1, ByteFew.of((byte) 1, (byte) -1).find(b -> b < 0));
+  assertTrue(Pr.equal(Few.of(IntFew.of(1, 2)), Few.of(IntFew.of(1, 2))));
+}
+
+@Test
+void print() {
+  assertEquals("#i32(1 2 3)", IntFew.of(1, 2, 3).toString());
+  assertEquals("#(#i32(1) #f64(0.5))", Few.of(IntFew.of(1), DoubleFew.of(0.5)).toString());
+}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyLotTest {
+
+private static LazyLot naturals() {
+  return LazyLot.iterate(0, o -> (int) o + 1);
+}
+
+@Test
+void demand() {
+  int[]   calls   = {0};
+  LazyLot squares = naturals().map(o -> {
+    calls[0] += 1;
+    return (int) o * (int) o;
+  });
+  assertEquals(0, calls[0]);
+  LazyLot odd = squares.filter(o -> (int) o % 2 == 1);
+  assertEquals(Lot.of(1, 9, 25), odd.take(3).toLot());
+  assertEquals(6, calls[0]);
+  assertEquals(Lot.of(1, 9, 25), odd.take(3).toLot());
+  assertEquals(6, calls[0]);
+  assertEquals("«Lazy-Lot (0 1 4 9 16 25 ...)»", squares.toString());
+}
+
+@Test
+void takeDropZip() {
+  assertEquals(Lot.of(5, 6), naturals().drop(5).take(2).toLot());
+  assertEquals(Lot.of(), naturals().take(0).toLot());
+  assertEquals(Lot.of(1, 2, 3), LazyLot.from(Lot.of(1, 2, 3)).take(10).toLot());
+  assertTrue(LazyLot.from(Few.of(1, 2)).drop(3).isEmpty());
+  assertEquals(Lot.of(Few.of(0, "a"), Few.of(1, "b")),
+               naturals().zip(LazyLot.from(Few.of("a", "b"))).toLot());
+  assertThrows(RuntimeException.class, () -> LazyLot.EMPTY.car());
+}
+
+@Test
+void longSkip() {
+  LazyLot far = naturals().filter(o -> (int) o >= 1000000);
+  assertEquals(1000000, far.car());
+  LazyLot lt = LazyLot.cons(1, () -> LazyLot.cons(2, () -> LazyLot.EMPTY));
+  assertEquals("«Lazy-Lot (1 ...)»", lt.toString());
+  assertEquals(Lot.of(1, 2), lt.toLot());
+  assertEquals("«Lazy-Lot (1 2)»", lt.toString());
+}
+
+private static LazyLot sparse(int i) {
+  if (i % 100000 == 0) {
+    return LazyLot.cons(i, () -> sparse(i + 1));
+  }
+  else {
+    return LazyLot.delay(() -> sparse(i + 1));
+  }
+}
+
+@Test
+void delayChain() {
+  LazyLot lt = LazyLot.delay(() -> sparse(1));
+  assertEquals(100000, lt.car());
+  assertEquals(200000, lt.cdr().car());
+  assertEquals(Lot.of(300000, 400000), lt.drop(2).take(2).toLot());
+
+  LazyLot middle = sparse(50000);
+  assertEquals(100000, middle.car());
+  assertTrue(middle.isForced());
+}
+}
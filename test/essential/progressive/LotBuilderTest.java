@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import static essential.progressive.Pr.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LotBuilderTest {
+
+@Test
+void build() {
+  LotBuilder builder = new LotBuilder();
+  assertTrue(builder.build().isEmpty());
+
+  builder.add(1).add(2).addAll(Lot.of(3, 4)).addAll(Few.of(5));
+  assertEquals(5, builder.length());
+  Lot lt = builder.build();
+  assertEquals(Lot.of(1, 2, 3, 4, 5), lt);
+  assertTrue(builder.isEmpty());
+
+  builder.add(6);
+  assertEquals(Lot.of(1, 2, 3, 4, 5), lt);
+  assertEquals(Lot.of(6), builder.build());
+}
+
+@Test
+void buildWithTail() {
+  LotBuilder builder = new LotBuilder();
+  Lot        tail    = Lot.of(3, 4);
+  assertSame(tail, builder.build(tail));
+  Lot lt = builder.add(1).add(2).build(tail);
+  assertEquals(Lot.of(1, 2, 3, 4), lt);
+  assertSame(tail, lt.cddr());
+}
+
+@Test
+void addAllCircular() {
+  Lot lt = Lot.of(1, 2);
+  setCdr(lt.cdr(), lt);
+  assertThrows(RuntimeException.class, () -> new LotBuilder().addAll(lt));
+}
+}
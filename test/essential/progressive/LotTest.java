@@ -156,4 +156,65 @@ void map() {
   Lot l1_mapped = l1.map(x -> (int) x * 2);
   assertEquals(Lot.of(2, 4, 6), l1_mapped);
 }
-}
\ No newline at end of file
+
+@Test
+void circular() {
+  Lot tail = l1.copy();
+  Lot lt   = append(Lot.of(0, 0, 0, 0, 0), tail);
+  setCdr(tail.cddr(), tail);
+  assertThrows(RuntimeException.class, lt::reverse);
+  assertThrows(RuntimeException.class, lt::copy);
+  assertThrows(RuntimeException.class, lt::toFew);
+  int[] calls = {0};
+  assertThrows(RuntimeException.class, () -> lt.map(x -> calls[0] += 1));
+  assertThrows(RuntimeException.class, () -> lt.filter(x -> (calls[0] += 1) > 0));
+  assertEquals(0, calls[0]);
+  assertThrows(RuntimeException.class, () -> append(lt, l1));
+  assertThrows(RuntimeException.class, () -> isBelong(4, lt));
+  assertThrows(RuntimeException.class, () -> isBelong(0, lt));
+  assertThrows(RuntimeException.class, () -> isBelong(3, lt));
+  assertEquals(Lot.of(0, 0, 0, 0, 0, 1, 2, 3, 1, 2), lt.head(10));
+  assertEquals(tail, lt.tail(8));
+  assertThrows(RuntimeException.class, () -> lt.head(-1));
+}
+
+@Test
+void freeze() {
+  Lot lt = Lot.of(1, Few.of(2, Lot.of(3)), 4).freeze();
+  assertTrue(lt.isFrozen());
+  assertTrue(lt.cddr().isFrozen());
+  assertThrows(RuntimeException.class, () -> setCar(lt, 0));
+  assertThrows(RuntimeException.class, () -> setCdr(lt.cdr(), Lot.of()));
+  assertThrows(RuntimeException.class, () -> ((Few) lt.cadr()).set(0, 0));
+  assertEquals(3, lt.length());
+  assertEquals(2, lt.cdr().length());
+  assertEquals("(1 #(2 (3)) 4)", lt.toString());
+  assertEquals(Lot.of(1, Few.of(2, Lot.of(3)), 4), lt);
+  assertNotEquals(Lot.of(1, 2).freeze(), lt);
+
+  Lot cycle = l1.copy();
+  setCdr(cycle.cddr(), cycle);
+  cycle.freeze();
+  assertTrue(cycle.isBreadthCircle());
+  assertThrows(RuntimeException.class, cycle::length);
+  assertEquals(l2.toString(), cycle.toString());
+  assertEquals(l2, cycle);
+
+  Lot copy = lt.copy();
+  assertFalse(copy.isFrozen());
+  setCar(copy, 0);
+}
+
+@Test
+void testHashCode() {
+  assertEquals(l1.copy().hashCode(), l1.hashCode());
+  Lot m2 = l1.copy();
+  setCdr(m2.cddr(), m2);
+  assertEquals(l2, m2);
+  assertEquals(l2.hashCode(), m2.hashCode());
+  assertEquals(l3.hashCode(), l3.hashCode());
+  assertNotEquals(l1.hashCode(), Lot.of(1, 2).hashCode());
+  int hash = m2.hashCode();
+  assertEquals(hash, m2.freeze().hashCode());
+}
+}
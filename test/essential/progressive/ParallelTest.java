@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelTest {
+
+private static Few range(int length) {
+  Object[] arr = new Object[length];
+  for (int i = 0; i < length; i += 1) {
+    arr[i] = i;
+  }
+  return Few.of(arr);
+}
+
+@Test
+void map() {
+  Few fw = range(10000);
+  for (int split : new int[]{1, 7, 512, 10000, 20000}) {
+    assertEquals(fw.map(o -> (int) o * 2), fw.parallelMap(o -> (int) o * 2, split));
+  }
+  assertEquals(Few.of(), Few.of().parallelMap(o -> o));
+  assertThrows(RuntimeException.class, () -> fw.parallelMap(o -> o, 0));
+}
+
+@Test
+void filter() {
+  Few fw       = range(10000);
+  Few expected = fw.toLot().filter(o -> (int) o % 3 == 0).toFew();
+  for (int split : new int[]{1, 7, 512, 10000}) {
+    assertEquals(expected, fw.parallelFilter(o -> (int) o % 3 == 0, split));
+  }
+  assertEquals(Few.of(), fw.parallelFilter(o -> false));
+}
+
+@Test
+void reduce() {
+  Few fw = range(10000);
+  for (int split : new int[]{1, 7, 512, 10000}) {
+    assertEquals(49995000L, fw.parallelReduce(0L, (o1, o2) -> ((Number) o1).longValue() + ((Number) o2).longValue(), split));
+  }
+  // string concatenation is associative but not commutative
+  Few letters = Few.of("a", "b", "c", "d", "e");
+  assertEquals(">abcde", letters.parallelReduce(">", (o1, o2) -> (String) o1 + o2, 2));
+  assertEquals(">", Few.of().parallelReduce(">", (o1, o2) -> (String) o1 + o2));
+}
+
+@Test
+void find() {
+  Few fw = range(10000);
+  for (int split : new int[]{1, 7, 512, 10000}) {
+    assertEquals(4321, fw.parallelFind(o -> (int) o >= 4321 && (int) o % 2 == 1, split));
+    assertEquals(-1, fw.parallelFind(o -> (int) o < 0, split));
+  }
+  assertEquals(0, fw.parallelFind(o -> true));
+}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.utilities.Binary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentFewTest {
+
+@Test
+void addAndRemove() {
+  int           n  = 40000;
+  PersistentFew pf = PersistentFew.EMPTY;
+  for (int i = 0; i < n; i += 1) {
+    pf = pf.add(i);
+  }
+  assertEquals(n, pf.length());
+  for (int i = 0; i < n; i += 1) {
+    assertEquals(i, pf.ref(i));
+  }
+  assertThrows(RuntimeException.class, () -> PersistentFew.EMPTY.ref(0));
+
+  PersistentFew full = pf;
+  for (int i = n - 1; 0 <= i; i -= 1) {
+    pf = pf.removeLast();
+    assertEquals(i, pf.length());
+    if (i % 997 == 0 || i < 70) {
+      assertEquals(i == 0 ? -1 : i - 1, i == 0 ? -1 : pf.ref(i - 1));
+      assertEquals(pf, pf.add(i).removeLast());
+    }
+  }
+  assertTrue(pf.isEmpty());
+  assertEquals(n, full.length());
+  assertEquals(n - 1, full.ref(n - 1));
+}
+
+@Test
+void set() {
+  Object[] arr = new Object[5000];
+  for (int i = 0; i < arr.length; i += 1) {
+    arr[i] = i;
+  }
+  PersistentFew pf1 = PersistentFew.of(arr.clone());
+  PersistentFew pf2 = pf1;
+  for (int i = 0; i < arr.length; i += 7) {
+    pf2 = pf2.set(i, -i);
+    arr[i] = -i;
+  }
+  assertEquals(Few.of(arr), pf2.toFew());
+  assertEquals(100, pf1.ref(100));
+  assertEquals(-98, pf2.ref(98));
+  assertEquals(pf2, PersistentFew.from(Few.of(arr)));
+  assertNotEquals(pf1, pf2);
+}
+
+@Test
+void build() {
+  for (int n : new int[]{0, 1, 32, 33, 64, 1056, 1057, 33824}) {
+    PersistentFew pf1 = PersistentFew.EMPTY;
+    Object[]      arr = new Object[n];
+    for (int i = 0; i < n; i += 1) {
+      pf1 = pf1.add(i);
+      arr[i] = i;
+    }
+    PersistentFew pf2 = PersistentFew.of(arr);
+    assertEquals(pf1, pf2);
+    assertEquals(pf1.add(n), pf2.add(n));
+    if (n > 0) {
+      assertEquals(pf1.removeLast(), pf2.removeLast());
+    }
+  }
+  assertEquals(Lot.of(1, 2, 3), PersistentFew.from(Lot.of(1, 2, 3)).toLot());
+}
+
+@Test
+void printAndEncode() {
+  Few           fw = Few.of(1, 2);
+  PersistentFew pf = PersistentFew.of(fw, "a", fw);
+  assertEquals("#(#0=#(1 2) \"a\" #0#)", pf.toString());
+  assertEquals("#()", PersistentFew.EMPTY.toString());
+  assertEquals(Few.of(fw, "a", fw), Binary.decode(Binary.encode(pf)));
+  assertTrue(Pr.equal(Few.of(pf.set(2, 3)), Few.of(PersistentFew.of(Few.of(1, 2), "a", 3))));
+  assertFalse(Pr.equal(pf, pf.toFew()));
+
+  Few cycle = Few.of(0);
+  cycle.set(0, PersistentFew.of(cycle));
+  assertEquals("#0=#(#(#0#))", cycle.toString());
+  cycle.freeze();
+}
+}
@@ -7,6 +7,9 @@
 
 package essential.progressive;
 
+import essential.utilities.AVLTree;
+import essential.utilities.Queue;
+import essential.utilities.RBTree;
 import org.junit.jupiter.api.Test;
 
 import static essential.progressive.Pr.*;
@@ -45,4 +48,141 @@ void testIsBelong() {
 
   assertTrue(isBelong((o1, o2) -> (int) o1 == ((int) o2) * 3, 9, lt));
 }
-}
\ No newline at end of file
+
+@Test
+void testInPlace() {
+  Lot lt  = Lot.of(1, 2, 3, 4, 5);
+  Lot end = lt.tail(5);
+  Lot rev = reverseInPlace(lt);
+  assertEquals(Lot.of(5, 4, 3, 2, 1), rev);
+  assertSame(end, rev.tail(5));
+  assertEquals(Lot.of(1), lt);
+
+  Lot odd = filterInPlace(o -> (int) o % 2 == 1, rev);
+  assertEquals(Lot.of(5, 3, 1), odd);
+  assertSame(rev, odd);
+  assertSame(end, odd.tail(3));
+  assertSame(end, filterInPlace(o -> false, odd));
+
+  Lot tens = mapInPlace(o -> (int) o * 10, odd);
+  assertSame(odd, tens);
+  assertEquals(Lot.of(50, 30, 10), odd);
+
+  Lot tail = Lot.of(7);
+  assertSame(odd, appendInPlace(odd, tail));
+  assertSame(tail, odd.tail(3));
+  assertSame(tail, appendInPlace(Lot.of(), tail));
+
+  Lot cycle = Lot.of(1, 2);
+  setCdr(cycle.cdr(), cycle);
+  assertThrows(RuntimeException.class, () -> reverseInPlace(cycle));
+  assertThrows(RuntimeException.class, () -> appendInPlace(cycle, tail));
+  assertThrows(RuntimeException.class, () -> mapInPlace(o -> 0, cycle));
+  assertEquals(1, cycle.car());
+  assertEquals("#0=(1 2 . #0#)", cycle.toString());
+  Lot rho = cons(8, cons(9, cycle));
+  assertThrows(RuntimeException.class, () -> reverseInPlace(rho));
+  assertEquals("(8 9 . #0=(1 2 . #0#))", rho.toString());
+
+  Lot ring = Lot.of(1, 2, 3);
+  setCdr(ring.cddr(), ring);
+  Lot tailed = cons(0, ring);
+  for (Lot lt3 : new Lot[]{ring, tailed}) {
+    String           text = lt3.toString();
+    RuntimeException e    = assertThrows(RuntimeException.class, () -> reverseInPlace(lt3));
+    assertEquals(text + " is circular in breadth", e.getMessage());
+    assertEquals(text, lt3.toString());
+  }
+  assertEquals("(0 . #0=(1 2 3 . #0#))", tailed.toString());
+  assertSame(ring, tailed.cdr());
+  assertSame(ring, ring.cdr().cddr());
+
+  Lot mixed = cons(1, Lot.of(2, 3).freeze());
+  assertThrows(RuntimeException.class, () -> filterInPlace(o -> (int) o == 3, mixed));
+  assertEquals(Lot.of(1, 2, 3), mixed);
+  assertThrows(RuntimeException.class, () -> reverseInPlace(mixed));
+  assertEquals(Lot.of(1, 2, 3), mixed);
+}
+
+@Test
+void testDeepCopy() {
+  Few share = Few.of(new int[]{1, 2}, "s");
+  Lot lt    = Lot.of(share, share, Lot.of(3, share));
+  setCdr(lt.cddr(), lt.cdr());
+  Lot copy = (Lot) deepCopy(lt);
+  assertEquals(Pr.toString(lt), Pr.toString(copy));
+  assertNotSame(share, copy.car());
+  assertNotSame(share.ref(0), ((Few) copy.car()).ref(0));
+  assertSame(copy.car(), copy.cdr().car());
+  assertSame(copy.cdr(), copy.cddr().cdr());
+  assertSame("s", ((Few) copy.car()).ref(1));
+  setCar(copy, 0);
+  assertSame(share, lt.car());
+
+  Few frozen = Few.of(1, Lot.of(2), new int[]{3}).freeze();
+  Few thawed = (Few) deepCopy(frozen);
+  assertEquals(frozen, thawed);
+  thawed.set(0, 4);
+  assertEquals(1, frozen.ref(0));
+  assertEquals(7, deepCopy(7));
+}
+
+@Test
+void testEqualHash() {
+  Object[][] pairs = {
+      {Few.of(new Queue()), Few.of(new Queue())},
+      {Lot.of(new Queue(1, 2)), Lot.of(new Queue(1, 2))},
+      {Few.of(rbTree(1, 2)), Few.of(rbTree(1, 2))},
+      {Few.of(avlTree(1, 2)), Few.of(avlTree(1, 2))},
+      {Few.of(new Tag(), 1), Few.of(new Tag(), 1)}
+  };
+  for (Object[] pair : pairs) {
+    assertTrue(equal(pair[0], pair[1]));
+    assertEquals(pair[0].hashCode(), pair[1].hashCode());
+    assertEquals(equalHash(pair[0]), equalHash(pair[1]));
+  }
+}
+
+private static RBTree rbTree(Object... keys) {
+  RBTree tree = new RBTree(Pr::less, Pr::greater);
+  for (Object key : keys) {
+    tree.insert(key, key);
+  }
+  return tree;
+}
+
+private static AVLTree avlTree(Object... keys) {
+  AVLTree tree = new AVLTree(Pr::less, Pr::greater);
+  for (Object key : keys) {
+    tree.insert(key, key);
+  }
+  return tree;
+}
+
+@SuppressWarnings("overrides")
+private static class Tag {
+
+  @Override
+  public boolean equals(Object datum) {
+    return datum instanceof Tag;
+  }
+}
+
+@Test
+void testToString() {
+  assertEquals("#1(#t #f)", Pr.toString(new boolean[]{true, false}));
+  assertEquals("#u8(00 7F 80 FF)", Pr.toString(new byte[]{0, 127, -128, -1}));
+  assertEquals("#i16(-32768 7)", Pr.toString(new short[]{Short.MIN_VALUE, 7}));
+  assertEquals("#i32()", Pr.toString(new int[0]));
+  assertEquals("#i64(-9223372036854775808)", Pr.toString(new long[]{Long.MIN_VALUE}));
+  assertEquals("#f32(1.5 NaN -0.0)", Pr.toString(new float[]{1.5f, Float.NaN, -0.0f}));
+  assertEquals("#f64(1.0E-300 -Infinity)",
+               Pr.toString(new double[]{1e-300, Double.NEGATIVE_INFINITY}));
+  assertEquals("#\\a", Pr.toString('a'));
+  assertEquals("#\\newline", Pr.toString('\n'));
+  assertEquals("#\\u0", Pr.toString('\0'));
+  assertEquals("#\\u9F", Pr.toString((char) 0x9F));
+  assertEquals("\"a\\tb\\\"c\\\\\"", Pr.toString("a\tb\"c\\"));
+  assertEquals("(#\\b #u8(0A) \"\")", Pr.toString(Lot.of('b', new byte[]{10}, "")));
+}
+}
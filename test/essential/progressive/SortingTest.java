@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import essential.functional.Predicate2;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortingTest {
+
+// Sorts pairs of a key and the original position by key, so that stability can be checked.
+private static final Predicate2 BY_KEY = (o1, o2) -> ((int[]) o1)[0] < ((int[]) o2)[0];
+
+private static void check(Object[] arr) {
+  check(arr, null);
+}
+
+private static void check(Object[] arr, ForkJoinPool pool) {
+  Object[] expected = arr.clone();
+  Arrays.sort(expected, (o1, o2) -> Integer.compare(((int[]) o1)[0], ((int[]) o2)[0]));
+  if (pool == null) {
+    Sorting.sort(BY_KEY, arr);
+  }
+  else {
+    Sorting.parallelSort(BY_KEY, arr, pool);
+  }
+  for (int i = 0; i < arr.length; i += 1) {
+    assertSame(expected[i], arr[i]);
+  }
+}
+
+private static Object[] pairs(int length, Random random, int keys, int shape) {
+  Object[] arr = new Object[length];
+  for (int i = 0; i < length; i += 1) {
+    int key = switch (shape) {
+      case 0 -> random.nextInt(keys);
+      case 1 -> i / 3;
+      case 2 -> length - i / 3;
+      default -> i % 7 == 0 ? random.nextInt(keys) : i;
+    };
+    arr[i] = new int[]{key, i};
+  }
+  return arr;
+}
+
+@Test
+void stable() {
+  Random random = new Random(11);
+  for (int length : new int[]{0, 1, 2, 31, 32, 33, 100, 1000, 5000}) {
+    for (int shape = 0; shape < 4; shape += 1) {
+      check(pairs(length, random, 10, shape));
+      check(pairs(length, random, 1 << 20, shape));
+    }
+  }
+}
+
+@Test
+void parallel() {
+  Random       random = new Random(13);
+  int          length = Sorting.PARALLEL_THRESHOLD * 5 + 17;
+  ForkJoinPool pool   = new ForkJoinPool(4);
+  for (int shape = 0; shape < 4; shape += 1) {
+    check(pairs(length, random, 100, shape));
+    check(pairs(length, random, 100, shape), pool);
+  }
+  pool.shutdown();
+}
+
+@Test
+void sortFewAndLot() {
+  Few fw = Few.of(3, 1, 2, 1);
+  assertEquals(Few.of(1, 1, 2, 3), fw.sorted((o1, o2) -> (int) o1 < (int) o2));
+  assertEquals(Few.of(3, 1, 2, 1), fw);
+  fw.sort((o1, o2) -> (int) o1 > (int) o2);
+  assertEquals(Few.of(3, 2, 1, 1), fw);
+  assertEquals(Lot.of(1, 1, 2, 3), Lot.of(3, 1, 2, 1).sorted((o1, o2) -> (int) o1 < (int) o2));
+}
+
+@Test
+void sortCells() {
+  Random random = new Random(17);
+  for (int length : new int[]{0, 1, 2, 3, 7, 64, 1000, 4099}) {
+    for (int shape = 0; shape < 4; shape += 1) {
+      Object[] arr      = pairs(length, random, 10, shape);
+      Object[] expected = arr.clone();
+      Sorting.sort(BY_KEY, expected);
+      Lot lt  = Lot.of(arr);
+      Lot end = lt.tail(length);
+      Lot xxx = Pr.sortInPlace(BY_KEY, lt);
+      for (Object datum : expected) {
+        assertSame(datum, xxx.car());
+        xxx = xxx.cdr();
+      }
+      assertSame(end, xxx);
+    }
+  }
+  Lot lt = Lot.of(2, 3, 1);
+  assertEquals(Lot.of(1, 2, 3), lt.sorted((o1, o2) -> (int) o1 < (int) o2));
+  assertEquals(Lot.of(2, 3, 1), lt);
+  Lot cycle = Lot.of(2, 1);
+  Pr.setCdr(cycle.cdr(), cycle);
+  assertThrows(RuntimeException.class, () -> Pr.sortInPlace((o1, o2) -> (int) o1 < (int) o2, cycle));
+  assertThrows(RuntimeException.class, () -> Pr.sortInPlace(BY_KEY, Lot.of(1).freeze()));
+}
+}
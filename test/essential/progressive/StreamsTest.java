@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamsTest {
+
+private static Few naturals(int n) {
+  Few fw = Few.make(n, 0);
+  for (int i = 0; i < n; i += 1) {
+    fw.set(i, i);
+  }
+  return fw;
+}
+
+@Test
+void few() {
+  Few fw = naturals(100000);
+  assertEquals(4999950000L, fw.stream().mapToLong(o -> (int) o).sum());
+  assertEquals(4999950000L, fw.stream().parallel().mapToLong(o -> (int) o).sum());
+  assertEquals(fw, fw.stream().parallel().collect(Streams.toFew()));
+  assertEquals(Few.of(), Few.of().stream().collect(Streams.toFew()));
+}
+
+@Test
+void lot() {
+  Lot lt = naturals(100000).toLot();
+  assertEquals(4999950000L, lt.stream().mapToLong(o -> (int) o).sum());
+  assertEquals(4999950000L, lt.stream().parallel().mapToLong(o -> (int) o).sum());
+  assertEquals(lt, lt.stream().parallel().collect(Streams.toLot()));
+  assertEquals(lt.filter(o -> (int) o % 3 == 0),
+               lt.stream().parallel().filter(o -> (int) o % 3 == 0).collect(Streams.toLot()));
+  assertEquals(Lot.of(), Lot.of().stream().collect(Streams.toLot()));
+}
+
+@Test
+void lotSplit() {
+  Lot                 lt    = naturals(3000).toLot();
+  Spliterator<Object> right = lt.stream().spliterator();
+  Spliterator<Object> left  = right.trySplit();
+  assertNotNull(left);
+  assertEquals(1024, left.estimateSize());
+  int[] first = {-1};
+  right.tryAdvance(o -> first[0] = (int) o);
+  assertEquals(1024, first[0]);
+}
+
+@Test
+void circular() {
+  Lot lt = Lot.of(1, 2, 3);
+  Pr.setCdr(lt.tail(2), lt);
+  assertEquals(Lot.of(1, 2, 3, 1, 2, 3, 1), lt.stream().limit(7).collect(Streams.toLot()));
+}
+
+@Test
+void collect() {
+  Lot lt = IntStream.range(0, 50000).boxed().parallel().collect(Streams.toLot());
+  assertEquals(50000, lt.length());
+  assertEquals(naturals(50000).toLot(), lt);
+  Few fw = IntStream.range(0, 50000).boxed().parallel().collect(Streams.toFew());
+  assertEquals(naturals(50000), fw);
+}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransducerTest {
+
+@Test
+void chain() {
+  Lot        lt = Lot.of(1, 2, 3, 4, 5, 6, 7, 8);
+  Transducer xf = Transducer.map(o -> (int) o * 3)
+                            .then(Transducer.filter(o -> (int) o % 2 == 0))
+                            .then(Transducer.map(o -> (int) o + 1));
+  assertEquals(lt.map(o -> (int) o * 3).filter(o -> (int) o % 2 == 0).map(o -> (int) o + 1),
+               xf.intoLot(lt));
+  assertEquals(Few.of(7, 13, 19, 25), xf.intoFew(lt.toFew()));
+  assertEquals(64, xf.reduce(lt, 0, (o1, o2) -> (int) o1 + (int) o2));
+  assertEquals(Lot.of(), xf.intoLot(Lot.of()));
+}
+
+@Test
+void takeStops() {
+  int[] calls = {0};
+  Transducer xf = Transducer.map(o -> {
+    calls[0] += 1;
+    return o;
+  }).then(Transducer.take(3));
+  assertEquals(Lot.of(1, 2, 3), xf.intoLot(Few.of(1, 2, 3, 4, 5)));
+  assertEquals(3, calls[0]);
+  assertEquals(Lot.of(1, 2, 3), xf.intoLot(Few.of(1, 2, 3, 4, 5)));
+  assertEquals(Lot.of(), Transducer.take(0).intoLot(Few.of(1)));
+
+  Lot cycle = Lot.of(1, 2);
+  Pr.setCdr(cycle.cdr(), cycle);
+  assertThrows(RuntimeException.class, () -> xf.intoLot(cycle));
+}
+
+@Test
+void mapcatAndDedupe() {
+  Transducer xf = Transducer.mapcat(o -> (int) o % 2 == 0 ? Few.of(o, o) : Lot.of(o))
+                            .then(Transducer.dedupe());
+  assertEquals(Lot.of(1, 2, 3, 4), xf.intoLot(Lot.of(1, 1, 2, 3, 4, 4)));
+  assertEquals(Lot.of(1, 2, 2, 3), Transducer.mapcat(o -> (int) o == 2 ? Few.of(o, o) : Lot.of(o))
+                                             .intoLot(Lot.of(1, 2, 3)));
+  assertThrows(RuntimeException.class, () -> Transducer.mapcat(o -> o).intoLot(Lot.of(1)));
+  assertEquals(Lot.of(1, 2, 1), Transducer.dedupe().intoLot(Few.of(1, 1, 2, 2, 1)));
+}
+}
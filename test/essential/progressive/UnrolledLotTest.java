@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnrolledLotTest {
+
+private static Object[] range(int n) {
+  Object[] arr = new Object[n];
+  for (int i = 0; i < n; i += 1) {
+    arr[i] = i;
+  }
+  return arr;
+}
+
+@Test
+void scan() {
+  UnrolledLot ul = UnrolledLot.of(range(100));
+  assertEquals(100, ul.length());
+  assertEquals(37, ul.ref(37));
+  assertEquals(37, ul.tail(37).car());
+  assertTrue(ul.tail(100).isEmpty());
+  assertThrows(RuntimeException.class, () -> ul.ref(100));
+  assertThrows(RuntimeException.class, () -> ul.tail(101));
+  assertEquals(Few.of(range(100)), ul.toFew());
+  assertEquals(Lot.of(range(100)), ul.toLot());
+
+  UnrolledLot xxx = ul;
+  for (int i = 0; i < 100; i += 1) {
+    assertEquals(i, xxx.car());
+    xxx = xxx.cdr();
+  }
+  assertTrue(xxx.isEmpty());
+  assertThrows(RuntimeException.class, xxx::car);
+  assertTrue(UnrolledLot.of().isEmpty());
+}
+
+@Test
+void setCarAndCdr() {
+  UnrolledLot ul    = UnrolledLot.of(range(40));
+  UnrolledLot kept  = ul.tail(5);
+  UnrolledLot later = ul.tail(10);
+  ul.tail(3).setCdr(UnrolledLot.of("a", "b"));
+  assertEquals(Lot.of(0, 1, 2, 3, "a", "b"), ul.toLot());
+  assertEquals(5, kept.car());
+  assertEquals(35, kept.length());
+  assertEquals(10, later.car());
+
+  later.setCar("x");
+  assertEquals("x", kept.ref(5));
+  kept.tail(2).setCdr(later);
+  assertEquals(Lot.of(5, 6, 7, "x", 11), kept.toLot().head(5));
+
+  later.tail(29).setCdr(kept);
+  assertTrue(kept.isBreadthCircle());
+  assertThrows(RuntimeException.class, kept::length);
+  Lot lt = kept.toLot();
+  assertTrue(lt.isBreadthCircle());
+  assertEquals(5, lt.ref(33));
+}
+
+@Test
+void stream() {
+  UnrolledLot ul = UnrolledLot.of(range(40));
+  assertEquals(Few.of(range(40)), ul.stream().collect(Streams.toFew()));
+  assertEquals(Lot.of(5, 6, 7), ul.tail(5).stream().limit(3).collect(Streams.toLot()));
+  assertEquals(780, ul.stream().parallel().mapToInt(o -> (int) o).sum());
+  assertEquals(0, UnrolledLot.of().stream().count());
+
+  UnrolledLot cut = UnrolledLot.of(range(40));
+  cut.tail(20).setCdr(cut.tail(22));
+  assertEquals(ul.tail(22), cut.tail(21));
+  assertEquals(Lot.of(19, 20, 22, 23), cut.tail(19).stream().limit(4).collect(Streams.toLot()));
+  assertEquals(39, cut.stream().count());
+
+  UnrolledLot circle = UnrolledLot.of(range(20));
+  circle.tail(19).setCdr(circle);
+  assertEquals(Lot.of(18, 19, 0, 1), circle.tail(18).stream().limit(4).collect(Streams.toLot()));
+}
+
+@Test
+void equalsAndHashCode() {
+  UnrolledLot ul  = UnrolledLot.of(range(40));
+  UnrolledLot cut = UnrolledLot.of(range(40));
+  cut.tail(20).setCdr(cut.tail(22));
+  assertEquals(ul, UnrolledLot.of(range(40)));
+  assertEquals(ul.hashCode(), UnrolledLot.of(range(40)).hashCode());
+  assertNotEquals(ul, cut);
+  assertEquals(ul.tail(22), cut.tail(21));
+  assertEquals(ul.tail(22).hashCode(), cut.tail(21).hashCode());
+  assertEquals(UnrolledLot.of(Few.of(1, "a")), UnrolledLot.of(Few.of(1, "a")));
+  assertNotEquals(UnrolledLot.of(1, 2), UnrolledLot.of(1, 3));
+
+  UnrolledLot c1 = UnrolledLot.of(range(20));
+  UnrolledLot c2 = UnrolledLot.of(range(20));
+  c1.tail(19).setCdr(c1);
+  c2.tail(19).setCdr(c2);
+  assertEquals(c1, c2);
+  assertEquals(c1.hashCode(), c2.hashCode());
+  assertNotEquals(c1, UnrolledLot.of(range(20)));
+
+  UnrolledLot u1 = UnrolledLot.of(1, 2);
+  UnrolledLot u2 = UnrolledLot.of(1, 3, 4);
+  u2.setCdr(UnrolledLot.of(2));
+  assertEquals(Few.of(u1), Few.of(u2));
+  assertEquals(Few.of(u1).hashCode(), Few.of(u2).hashCode());
+}
+}
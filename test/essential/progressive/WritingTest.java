@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.progressive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static essential.progressive.Pr.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class WritingTest {
+
+private static String write(Object datum, int max_depth, int max_elements, int max_chars) {
+  StringBuilder builder = new StringBuilder();
+  Pr.write(datum, builder, max_depth, max_elements, max_chars);
+  return builder.toString();
+}
+
+@Test
+void write() {
+  Few fw = Few.of(1, "share", 3, "share");
+  fw.set(2, fw);
+  Lot lt = Lot.of(1, 2, 3);
+  setCdr(lt.cddr(), lt.cdr());
+  Lot l1 = Lot.of();
+  Lot l2 = cons(1, cons(l1, cons(3, l1)));
+  for (Object datum : new Object[]{fw, lt, l2, Lot.of(1, Few.of(2, 3)).freeze(), 'a'}) {
+    StringBuilder builder = new StringBuilder();
+    Pr.write(datum, builder);
+    assertEquals(Pr.toString(datum), builder.toString());
+  }
+}
+
+@Test
+void flush() {
+  LotBuilder builder = new LotBuilder();
+  for (int i = 0; i < 5000; i += 1) {
+    builder.add(i);
+  }
+  Lot          lt     = builder.build();
+  StringWriter writer = new StringWriter();
+  Pr.write(lt, writer);
+  assertEquals(Pr.toString(lt), writer.toString());
+  writer = new StringWriter();
+  Pr.write(lt, writer, 9, 9999, 10000);
+  assertEquals(Pr.toString(lt).substring(0, 10000) + "...", writer.toString());
+}
+
+@Test
+void limits() {
+  Lot lt = Lot.of(Lot.of(1, Few.of(2, Lot.of(3))), 4, 5, 6);
+  assertEquals("((1 #(2 (3))) 4 5 6)", write(lt, 9, 9, 99));
+  assertEquals("((1 #(2 ...)) 4 5 6)", write(lt, 3, 9, 99));
+  assertEquals("((1 ...) 4 5 6)", write(lt, 2, 9, 99));
+  assertEquals("(... 4 5 6)", write(lt, 1, 9, 99));
+  assertEquals("...", write(lt, 0, 9, 99));
+  assertEquals("((1 #(2 (3))) 4 ...)", write(lt, 9, 2, 99));
+  assertEquals("((1 ...) ...)", write(lt, 9, 1, 99));
+  assertEquals("(...)", write(lt, 9, 0, 99));
+  assertEquals("((1 #(2...", write(lt, 9, 9, 7));
+  assertEquals("...", write(lt, 9, 9, 0));
+  assertEquals("(() #())", write(Lot.of(Lot.of(), Few.of()), 1, 9, 99));
+
+  // only the labels of the printed part
+  Lot cycle = Lot.of(1, 2, 3);
+  setCdr(cycle.cddr(), cycle);
+  assertEquals("#0=(1 2 3 . #0#)", write(cycle, 9, 9, 99));
+  assertEquals("(1 2 ...)", write(cycle, 9, 2, 99));
+  assertEquals("#0=(1 2 ...", write(cycle, 9, 9, 8));
+  assertThrows(RuntimeException.class, () -> write(cycle, -1, 9, 99));
+}
+}
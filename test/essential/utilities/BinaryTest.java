@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 
 import static essential.progressive.Pr.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -271,4 +272,24 @@ void testFewAndLot() {
   out_fw = (Few) Binary.decode(bin_fw);
   assertEquals(fw, out_fw);
 }
-}
\ No newline at end of file
+
+@Test
+void testHash64() {
+  Few fw = Few.of("message", 1000, Lot.of(2.5, 'c'), new int[]{1, 2, 3}, Time.current());
+  assertEquals(Binary.hash64(fw), Binary.hash64(fw.copy()));
+  assertEquals(Binary.hash64(fw), Binary.hash64(Binary.decode(Binary.encode(fw))));
+  assertNotEquals(Binary.hash64(Few.of(1, 2)), Binary.hash64(Few.of(2, 1)));
+  assertNotEquals(Binary.hash64(Few.of(1, 2)), Binary.hash64(Lot.of(1, 2)));
+  assertNotEquals(Binary.hash64("ab"), Binary.hash64("abc"));
+
+  Lot c1 = Lot.of(1, 2, 3);
+  setCdr(c1.cddr(), c1);
+  Lot c2 = Lot.of(1, 2, 3);
+  setCdr(c2.cddr(), c2);
+  assertEquals(Binary.hash64(c1), Binary.hash64(c2));
+  assertEquals(Binary.hash64(c1), Binary.hash64(Binary.decode(Binary.encode(c1))));
+  Lot c3 = Lot.of(1, 2, 3);
+  setCdr(c3.cddr(), c3.cdr());
+  assertNotEquals(Binary.hash64(c1), Binary.hash64(c3));
+}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class ContinuationTest {
+
+@Test
+void pushAndPop() {
+  Continuation cont = new Continuation();
+  assertEquals(Continuation.END_CONT, cont.kind());
+  for (int i = 0; i < 1000; i += 1) {
+    cont.push(1, "frame", i, i * 2);
+  }
+  cont.push(2, "a", "b", 3, 4, 5);
+  assertEquals(2, cont.kind());
+  assertEquals("b", cont.object(1));
+  assertEquals(5, cont.number(2));
+  cont.setKind(3);
+  cont.setNumber(0, 6);
+  assertEquals(3, cont.kind());
+  assertEquals(6, cont.number(0));
+  cont.pop();
+  for (int i = 999; 0 <= i; i -= 1) {
+    assertEquals(1, cont.kind());
+    assertEquals(i * 2, cont.number(1));
+    cont.pop();
+  }
+  assertTrue(cont.isEmpty());
+}
+
+@Test
+void acquire() {
+  Continuation cont1 = Continuation.acquire();
+  Continuation cont2 = Continuation.acquire();
+  assertNotSame(cont1, cont2);
+  cont1.push(1, "frame");
+  cont1.release();
+  assertTrue(cont1.isEmpty());
+  assertSame(cont1, Continuation.acquire());
+  cont1.release();
+}
+}
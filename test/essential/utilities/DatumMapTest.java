@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.datetime.Date;
+import essential.progressive.Few;
+import essential.progressive.Lot;
+import essential.progressive.Pr;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class DatumMapTest {
+
+@Test
+void eq() {
+  DatumMap map = DatumMap.eq();
+  Lot      lt  = Lot.of(1, 2);
+  assertTrue(map.insert(1000, "int"));
+  assertTrue(map.insert(1000L, "long"));
+  assertTrue(map.insert(-0.0, "zero"));
+  assertTrue(map.insert('c', "char"));
+  assertTrue(map.insert(lt, "lot"));
+  assertFalse(map.insert(Integer.valueOf(1000), "again"));
+  assertEquals("int", map.ref(Integer.valueOf(1000)));
+  assertEquals("long", map.ref(1000L));
+  assertEquals("zero", map.ref(0.0));
+  assertEquals("char", map.ref('c'));
+  assertEquals("lot", map.ref(lt));
+  assertFalse(map.isPresent(Lot.of(1, 2)));
+  assertThrows(RuntimeException.class, () -> map.ref("absent"));
+}
+
+@Test
+void equal() {
+  DatumMap map = DatumMap.equal();
+  Few      fw  = Few.of(1, Lot.of(2, 3));
+  Lot      cyc = Lot.of(1, 2);
+  Pr.setCdr(cyc.cdr(), cyc);
+  assertTrue(map.insert(fw, 1));
+  assertTrue(map.insert(new int[]{1, 2}, 2));
+  assertTrue(map.insert("str", 3));
+  assertTrue(map.insert(new Date(2024, 2, 29, 1, 2, 3, 4, 0), 4));
+  assertTrue(map.insert(cyc, 5));
+  assertFalse(map.insert(Few.of(1, Lot.of(2, 3)), 0));
+  assertEquals(1, map.ref(Few.of(1, Lot.of(2, 3)).freeze()));
+  assertEquals(2, map.ref(new int[]{1, 2}));
+  assertEquals(3, map.ref(new String("str")));
+  assertEquals(4, map.ref(new Date(2024, 2, 29, 1, 2, 3, 4, 0)));
+  Lot unfolded = Lot.of(1, 2, 1, 2);
+  Pr.setCdr(unfolded.cdr().cdr().cdr(), unfolded);
+  assertEquals(5, map.ref(unfolded));
+  assertFalse(map.isPresent(Few.of(1, Few.of(2, 3))));
+}
+
+@Test
+void delete() {
+  int      n   = 20000;
+  DatumMap map = DatumMap.equal();
+  for (int i = 0; i < n; i += 1) {
+    assertTrue(map.insert(Lot.of(i), i));
+  }
+  for (int i = 0; i < n; i += 2) {
+    assertTrue(map.delete(Lot.of(i)));
+  }
+  assertFalse(map.delete(Lot.of(0)));
+  assertEquals(n / 2, map.size());
+  for (int i = 0; i < n; i += 1) {
+    assertEquals(i % 2 == 1, map.isPresent(Lot.of(i)));
+  }
+  for (int i = 0; i < map.size(); i += 1) {
+    assertEquals(i, map.index(map.keyAt(i)));
+    assertEquals(((Lot) map.keyAt(i)).car(), map.valueAt(i));
+  }
+}
+
+@Test
+void travel() {
+  DatumMap map = DatumMap.of(true, Lot.of(Lot.of("a", 1), Lot.of("b", 2), Lot.of("a", 3)));
+  assertEquals(2, map.size());
+  assertEquals(Lot.of(Lot.of("a", 1), Lot.of("b", 2)), map.travel());
+  map.set("a", 10);
+  DatumMap mapped = map.map(o -> (int) o * 10);
+  assertEquals(Lot.of(Lot.of("a", 100), Lot.of("b", 20)), mapped.travel());
+  assertEquals(20, mapped.ref("b"));
+  map.clear();
+  assertTrue(map.isEmpty());
+  assertThrows(RuntimeException.class, () -> map.set("a", 0));
+}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.progressive.Few;
+import essential.progressive.Lot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class DatumSetTest {
+
+@Test
+void insert() {
+  DatumSet set = DatumSet.equal();
+  assertTrue(set.insert(Few.of(1, "a")));
+  assertTrue(set.insert(Lot.of(1, "a")));
+  assertFalse(set.insert(Few.of(1, "a")));
+  assertTrue(set.isPresent(Lot.of(1, "a")));
+  assertTrue(set.delete(Few.of(1, "a")));
+  assertEquals(1, set.size());
+  assertEquals(Lot.of(1, "a"), set.ref(0));
+
+  DatumSet ids = DatumSet.eq();
+  assertTrue(ids.insert(Few.of(1)));
+  assertTrue(ids.insert(Few.of(1)));
+  assertTrue(ids.insert(7));
+  assertFalse(ids.insert(7));
+  assertEquals(3, ids.size());
+}
+
+@Test
+void travel() {
+  DatumSet set = DatumSet.of(true, Lot.of("a", Lot.of(), "b", "a", Lot.of()));
+  assertEquals(Lot.of("a", Lot.of(), "b"), set.travel());
+  set.clear();
+  assertTrue(set.isEmpty());
+}
+}
@@ -7,11 +7,16 @@
 
 package essential.utilities;
 
+import essential.progressive.ByteFew;
+import essential.progressive.DoubleFew;
 import essential.progressive.Few;
+import essential.progressive.IntFew;
 import essential.progressive.Lot;
+import essential.progressive.LongFew;
 import org.junit.jupiter.api.Test;
 
 import static essential.progressive.Pr.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class DecodingTest {
@@ -33,4 +38,17 @@ void process() {
   System.out.println(datum);
   assertEquals(lt, datum);
 }
-}
\ No newline at end of file
+
+@Test
+void vectors() {
+  byte[] bs  = {1, -2, 3};
+  Few    fw  = Few.of(IntFew.of(1, -2), LongFew.of(3L), DoubleFew.of(0.5), ByteFew.of(bs), bs);
+  Few    out = (Few) Binary.decode(Binary.encode(fw));
+  assertArrayEquals(new int[]{1, -2}, (int[]) out.ref(0));
+  assertArrayEquals(new long[]{3L}, (long[]) out.ref(1));
+  assertArrayEquals(new double[]{0.5}, (double[]) out.ref(2));
+  assertArrayEquals(bs, (byte[]) out.ref(3));
+  assertArrayEquals(bs, (byte[]) out.ref(4));
+  assertEquals(IntFew.of(1, -2), IntFew.of((int[]) out.ref(0)));
+}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2022-2025. Laze Lee
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0.
+ * If a copy of the MPL was not distributed with this file, You can obtain one at
+ * https://mozilla.org/MPL/2.0/
+ */
+
+package essential.utilities;
+
+import essential.progressive.Few;
+import essential.progressive.Lot;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+class IdentityMapTest {
+
+@Test
+void insert() {
+  IdentityMap map = new IdentityMap();
+  String      s1  = "same";
+  String      s2  = new String("same");
+  assertTrue(map.insert(s1, 1));
+  assertTrue(map.insert(s2, 2));
+  assertFalse(map.insert(s1, 3));
+  assertEquals(2, map.size());
+  assertEquals(1, map.ref(s1));
+  assertEquals(2, map.ref(s2));
+  assertEquals(0, map.index(s1));
+  assertEquals(1, map.index(s2));
+  assertEquals(-1, map.index("other"));
+  assertThrows(RuntimeException.class, () -> map.ref(new Object()));
+}
+
+@Test
+void grow() {
+  int         n    = 100000;
+  Few         keys = Few.make(n, 0);
+  IdentityMap map  = new IdentityMap();
+  for (int i = 0; i < n; i += 1) {
+    keys.set(i, new Object());
+    assertTrue(map.insert(keys.ref(i), i));
+  }
+  assertEquals(n, map.size());
+  for (int i = 0; i < n; i += 1) {
+    assertEquals(i, map.index(keys.ref(i)));
+    assertEquals(i, map.valueAt(i));
+    assertSame(keys.ref(i), map.keyAt(i));
+  }
+}
+
+@Test
+void setAndClear() {
+  IdentityMap map = new IdentityMap(2);
+  Object      key = new Object();
+  map.insert(key, 1);
+  map.set(key, 2);
+  assertEquals(2, map.ref(key));
+  map.setValueAt(0, 3);
+  assertEquals(3, map.ref(key));
+  assertThrows(RuntimeException.class, () -> map.set(new Object(), 0));
+  map.clear();
+  assertTrue(map.isEmpty());
+  assertFalse(map.isPresent(key));
+}
+
+@Test
+void travel() {
+  IdentityMap map = new IdentityMap();
+  map.insert("a", 1);
+  map.insert("b", 2);
+  assertEquals(Lot.of(Lot.of("a", 1), Lot.of("b", 2)), map.travel());
+  IdentityMap mapped = map.map(o -> (int) o * 10);
+  assertEquals(Lot.of(Lot.of("a", 10), Lot.of("b", 20)), mapped.travel());
+}
+}
@@ -10,6 +10,7 @@ package essential.utilities;
 import essential.datetime.Time;
 import essential.progressive.Lot;
 import essential.progressive.Pr;
+import essential.progressive.Streams;
 import org.junit.jupiter.api.Test;
 
 import java.util.Random;
@@ -51,6 +52,12 @@ void insert() {
 void visit() {
   Lot all = tree.travel();
   assertEquals(all.length(), tree.size());
+  assertEquals(all, tree.stream().collect(Streams.toLot()));
+  assertEquals(all, tree.stream().parallel().collect(Streams.toLot()));
+  assertEquals(tree.size(), tree.stream().spliterator().getExactSizeIfKnown());
+  assertEquals(tree.size(), tree.stream().count());
+  assertEquals(tree.size(), tree.stream().toArray().length);
+  assertEquals(tree.size(), tree.stream().parallel().toArray().length);
 
   RBTree new_tree = tree.map(o -> ((int) o) * 3);
 